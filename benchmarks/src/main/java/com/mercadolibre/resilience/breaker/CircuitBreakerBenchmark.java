@@ -0,0 +1,109 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.control.ControlListener;
+import com.mercadolibre.resilience.breaker.control.ObservableCircuitControl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link CircuitBreaker#run(Action)} in each state. The breaker is event driven and its control never
+ * notifies a verdict change, so no switch or timer runs and the breaker stays in the state under test. The JMH state
+ * annotation is fully qualified as it clashes with the breaker {@link State}.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitBreakerBenchmark {
+
+    @Param({"CLOSED", "OPEN", "HALF_OPEN"})
+    public State state;
+
+    private CircuitBreaker breaker;
+
+    private final Action<Boolean> action = new Action<Boolean>() {
+        @Override
+        public Boolean get() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return e == null;
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        breaker = CircuitBreaker.builder()
+                .withControl(new ObservableCircuitControl() {
+                    @Override
+                    public <T> void register(Action<T> action, T data) {
+                    }
+
+                    @Override
+                    public <T> void register(Action<T> action, Exception e) {
+                    }
+
+                    @Override
+                    public boolean shouldOpen() {
+                        return false;
+                    }
+
+                    @Override
+                    public boolean shouldClose() {
+                        return false;
+                    }
+
+                    @Override
+                    public void addListener(ControlListener listener) {
+                    }
+
+                    @Override
+                    public void removeListener(ControlListener listener) {
+                    }
+                })
+                .eventDriven(true)
+                .build();
+
+        breaker.setState(state);
+    }
+
+    @TearDown
+    public void tearDown() {
+        breaker.shutdown();
+    }
+
+    private Object run() {
+        try {
+            return breaker.run(action);
+        } catch (RejectedExecutionException e) {
+            return e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object run1() {
+        return run();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object run4() {
+        return run();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object runMax() {
+        return run();
+    }
+
+}
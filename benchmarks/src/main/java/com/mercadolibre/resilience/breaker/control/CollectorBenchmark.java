@@ -0,0 +1,72 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a collector run for different window lengths, both within a bucket, where the closed window score is
+ * cached, and when every run rolls over to a new bucket and scores the window again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectorBenchmark {
+
+    private static final long START = 1000 * 1000 * 1000;
+
+    @Param({"3", "60", "120"})
+    public int weights;
+
+    @Param({"false", "true"})
+    public boolean latency;
+
+    private final ManualClock clock = new ManualClock(START);
+
+    private OnOffCircuitControl control;
+
+    @Setup
+    public void setUp() {
+        double[] w = new double[weights];
+        Arrays.fill(w, 1.0 / weights);
+
+        OnOffCircuitControl.Builder builder = OnOffCircuitControl.builder()
+                .withCollector(Collector.builder().withWeights(w).build())
+                .withMinSampleSize(1)
+                .withClock(clock)
+                .startWorkers(false);
+
+        if (latency) builder.withSlowCallThreshold(100, 0.5);
+
+        control = builder.build();
+
+        fill(control.getStats(), control.getTimestamp());
+    }
+
+    private void fill(StatsRing ring, long now) {
+        for (long key = now - ring.capacity() + 1; key <= now; key++) {
+            Stats s = ring.acquire(key);
+            s.add(90, 10);
+        }
+    }
+
+    @Benchmark
+    public void run() {
+        control.getCollector().run();
+    }
+
+    @Benchmark
+    public void runAtRollOver() {
+        clock.advance(control.getBucketWidth());
+        control.getStats().acquire(control.getTimestamp()).add(90, 10);
+        control.getCollector().run();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.stats.SimpleStats;
+import com.mercadolibre.resilience.breaker.stats.StatsFactory;
+import com.mercadolibre.resilience.breaker.stats.StripedStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of registering a call: under contention on a single bucket, and when every call lands in a new bucket
+ * and has to reset a ring slot first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OnOffCircuitControlBenchmark {
+
+    @Param({"simple", "striped"})
+    public String stats;
+
+    @Param({"false", "true"})
+    public boolean latency;
+
+    private final ManualClock clock = new ManualClock(0);
+
+    private OnOffCircuitControl control;
+
+    private final Action<Boolean> action = new Action<Boolean>() {
+        @Override
+        public Boolean get() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return result && e == null;
+        }
+    };
+
+    @Setup
+    public void setUp() {
+        StatsFactory factory = "striped".equals(stats) ? StripedStats.FACTORY : SimpleStats.FACTORY;
+
+        OnOffCircuitControl.Builder builder = OnOffCircuitControl.builder()
+                .withClock(clock)
+                .withStatsFactory(factory)
+                .startWorkers(false);
+
+        if (latency) builder.withSlowCallThreshold(100, 0.5);
+
+        control = builder.build();
+    }
+
+    private void register() {
+        if (latency)
+            control.register(action, Boolean.TRUE, 1000);
+        else
+            control.register(action, Boolean.TRUE);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void register1() {
+        register();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void register4() {
+        register();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void registerMax() {
+        register();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void registerAtRollOver() {
+        clock.advance(control.getBucketWidth());
+        register();
+    }
+
+}
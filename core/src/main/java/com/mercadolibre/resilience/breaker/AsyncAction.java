@@ -0,0 +1,11 @@
+package com.mercadolibre.resilience.breaker;
+
+import java.util.concurrent.CompletionStage;
+
+public interface AsyncAction<T> {
+
+    CompletionStage<T> get() throws Exception;
+
+    boolean isValid(T result, Exception e);
+
+}
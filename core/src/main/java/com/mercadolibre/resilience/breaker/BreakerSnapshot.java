@@ -0,0 +1,100 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only view of a breaker taken by {@link CircuitBreaker#snapshot()}.
+ */
+public final class BreakerSnapshot {
+
+    private final State state;
+    private final long stateSince;
+    private final long timestamp;
+    private final double score;
+    private final long openRejections;
+    private final long bulkheadRejections;
+    private final int inFlight;
+    private final long droppedEvents;
+    private final List<BucketSnapshot> buckets;
+
+    BreakerSnapshot(State state, long stateSince, long timestamp, double score, long openRejections,
+                    long bulkheadRejections, int inFlight, long droppedEvents, List<BucketSnapshot> buckets) {
+        this.state = state;
+        this.stateSince = stateSince;
+        this.timestamp = timestamp;
+        this.score = score;
+        this.openRejections = openRejections;
+        this.bulkheadRejections = bulkheadRejections;
+        this.inFlight = inFlight;
+        this.droppedEvents = droppedEvents;
+        this.buckets = Collections.unmodifiableList(buckets);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Clock time, in milliseconds, at which the breaker entered its state.
+     */
+    public long getStateSince() {
+        return stateSince;
+    }
+
+    /**
+     * Clock time, in milliseconds, at which the snapshot was taken.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTimeInState() {
+        return timestamp - stateSince;
+    }
+
+    /**
+     * Last score computed by the control, or NaN if it does not expose one or has not enough data.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    public long getOpenRejections() {
+        return openRejections;
+    }
+
+    public long getBulkheadRejections() {
+        return bulkheadRejections;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * Per-bucket counters of the control window, oldest first. Empty for controls that do not keep buckets.
+     */
+    public List<BucketSnapshot> getBuckets() {
+        return buckets;
+    }
+
+    @Override
+    public String toString() {
+        return "BreakerSnapshot{state=" + state +
+                ", timeInState=" + getTimeInState() +
+                ", score=" + score +
+                ", openRejections=" + openRejections +
+                ", bulkheadRejections=" + bulkheadRejections +
+                ", inFlight=" + inFlight +
+                ", buckets=" + buckets +
+                "}";
+    }
+
+}
@@ -0,0 +1,888 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.clock.Clock;
+import com.mercadolibre.resilience.breaker.clock.SystemClock;
+import com.mercadolibre.resilience.breaker.control.CircuitControl;
+import com.mercadolibre.resilience.breaker.control.LimitCircuitControl;
+import com.mercadolibre.resilience.breaker.control.ObservableCircuitControl;
+import com.mercadolibre.resilience.breaker.control.OnOffCircuitControl;
+import com.mercadolibre.resilience.breaker.control.ResettableCircuitControl;
+import com.mercadolibre.resilience.breaker.control.ScoredCircuitControl;
+import com.mercadolibre.resilience.breaker.control.TimedCircuitControl;
+import com.mercadolibre.resilience.breaker.metrics.BreakerEvents;
+import com.mercadolibre.resilience.breaker.metrics.NoOpBreakerEvents;
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import com.mercadolibre.resilience.exception.BreakerOpenException;
+import com.mercadolibre.resilience.exception.BulkheadFullException;
+import com.mercadolibre.resilience.exception.CallTimeoutException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+public class CircuitBreaker {
+
+    protected static final int DEFAULT_PRECISION = 90;
+    public static final double DEFAULT_HALF_OPEN_MIN_SCORE = 0.6;
+    public static final int DEFAULT_EVENT_BUFFER_SIZE = 256;
+    private static final long PERMIT_BACKOFF_NANOS = 50 * 1000;
+
+    private static final String OPEN_MESSAGE = "Breaker is open";
+    private static final String HALF_OPEN_MESSAGE = "Breaker is half open";
+    private static final String BULKHEAD_FULL_MESSAGE = "Breaker bulkhead is full";
+
+    private volatile State state = State.CLOSED;
+    private volatile long stateSince;
+
+    private long interval;
+    private long tryWindow;
+    private CircuitControl control;
+    private TimedCircuitControl timedControl;
+    private boolean ownsControl;
+    private CircuitBreaker parent;
+    private Clock clock = SystemClock.INSTANCE;
+    private ScheduledExecutorService pool = Schedulers.shared();
+    private ScheduledFuture<?> switchFuture;
+    private EventSwitch eventSwitch;
+    private TransitionPublisher publisher;
+    private BreakerEvents events = NoOpBreakerEvents.INSTANCE;
+
+    private long timeout;
+    private ExecutorService executor;
+
+    private int maxConcurrency;
+    private LimitCircuitControl limitControl;
+    private boolean bulkhead;
+    private long maxWait;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private boolean stacklessRejections;
+    private final LongAdder openRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+
+    private final BreakerOpenException openRejection = BreakerOpenException.stackless(OPEN_MESSAGE);
+    private final BreakerOpenException halfOpenRejection = BreakerOpenException.stackless(HALF_OPEN_MESSAGE);
+    private final BulkheadFullException bulkheadRejection = BulkheadFullException.stackless(BULKHEAD_FULL_MESSAGE);
+    private final Result<?> openResult = Result.rejected(openRejection);
+    private final Result<?> halfOpenResult = Result.rejected(halfOpenRejection);
+    private final Result<?> bulkheadResult = Result.rejected(bulkheadRejection);
+
+    private int halfOpenPermits;
+    private double halfOpenMinScore = DEFAULT_HALF_OPEN_MIN_SCORE;
+    private volatile Trial trial = new Trial();
+
+    public static class Builder {
+        private final CircuitBreaker breaker;
+        private int precision = DEFAULT_PRECISION;
+        private boolean eventDriven;
+        private int eventBufferSize = DEFAULT_EVENT_BUFFER_SIZE;
+        private Executor notifier;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.breaker = new CircuitBreaker();
+        }
+
+        public Builder withInterval(long interval) {
+            if (interval <= 0) throw new IllegalArgumentException("Interval should be positive");
+
+            breaker.interval = interval;
+            return this;
+        }
+
+        public Builder withTryWindow(long tryWindow) {
+            if (tryWindow <= 0) throw new IllegalArgumentException("Try window should be positive");
+
+            breaker.tryWindow = tryWindow;
+            return this;
+        }
+
+        public Builder withPrecision(int precision) {
+            if (precision <= 0) throw new IllegalArgumentException("Precision should be positive");
+
+            this.precision = precision;
+            return this;
+        }
+
+        /**
+         * Moves between states as soon as the control verdict changes instead of polling it every {@code precision}
+         * milliseconds. Requires an {@link ObservableCircuitControl}.
+         */
+        public Builder eventDriven(boolean eventDriven) {
+            this.eventDriven = eventDriven;
+            return this;
+        }
+
+        /**
+         * Admits at most {@code permits} trial calls each time the breaker goes half open and rejects the rest.
+         * Once they have all completed, the breaker closes if their success rate is above {@code minScore} and
+         * re-opens otherwise, regardless of the control verdict. A {@link ResettableCircuitControl} is reset on close.
+         */
+        public Builder withHalfOpenPermits(int permits, double minScore) {
+            if (permits <= 0) throw new IllegalArgumentException("Half open permits should be positive");
+            if (minScore < 0) throw new IllegalArgumentException("Half open min score should be non negative");
+
+            breaker.halfOpenPermits = permits;
+            breaker.halfOpenMinScore = minScore;
+            return this;
+        }
+
+        /**
+         * Runs each action on the breaker executor and gives up after {@code timeout} milliseconds. Timed out
+         * actions are cancelled, registered with the control and reported with a {@link CallTimeoutException}.
+         */
+        public Builder withTimeout(long timeout) {
+            if (timeout <= 0) throw new IllegalArgumentException("Timeout should be positive");
+
+            breaker.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Executor running actions when a timeout is set. Defaults to virtual threads on Java 21+ and to a shared
+         * cached pool otherwise. Calls the executor refuses are rejected with its {@link RejectedExecutionException}
+         * and not registered with the control.
+         */
+        public Builder withExecutor(ExecutorService executor) {
+            if (executor == null) throw new IllegalArgumentException("Executor should not be null");
+
+            breaker.executor = executor;
+            return this;
+        }
+
+        /**
+         * Caps the number of calls in flight through this breaker. Calls over the limit are rejected with a
+         * {@link BulkheadFullException}.
+         */
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            return withMaxConcurrency(maxConcurrency, 0);
+        }
+
+        /**
+         * Caps the number of calls in flight through this breaker. Synchronous calls over the limit wait up to
+         * {@code maxWait} milliseconds for a call to complete before being rejected with a
+         * {@link BulkheadFullException}; asynchronous calls never wait.
+         */
+        public Builder withMaxConcurrency(int maxConcurrency, long maxWait) {
+            if (maxConcurrency <= 0) throw new IllegalArgumentException("Max concurrency should be positive");
+            if (maxWait < 0) throw new IllegalArgumentException("Max wait should be non negative");
+
+            breaker.maxConcurrency = maxConcurrency;
+            breaker.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * Throws rejection exceptions preallocated by this breaker and without a stack trace, so rejecting a call
+         * does not allocate. Callers must not modify them. In particular, a rejection thrown out of a
+         * try-with-resources block whose resource fails to close gets that failure added as suppressed, and keeps
+         * it for every later rejection of this breaker; callers closing resources around a breaker call should
+         * leave this disabled.
+         */
+        public Builder withStacklessRejections(boolean stacklessRejections) {
+            breaker.stacklessRejections = stacklessRejections;
+            return this;
+        }
+
+        /**
+         * Rejects calls while {@code parent} is open. Unless a control is given, the breaker gets an
+         * {@link OnOffCircuitControl} rolling its buckets up into the parent control, which must then be an
+         * {@link OnOffCircuitControl} too; a given control should be built with
+         * {@link OnOffCircuitControl.Builder#withParent(OnOffCircuitControl)}.
+         */
+        public Builder withParent(CircuitBreaker parent) {
+            if (parent == null) throw new IllegalArgumentException("Parent should not be null");
+
+            breaker.parent = parent;
+            return this;
+        }
+
+        /**
+         * Number of state transitions buffered for listeners. Transitions published while the buffer is full are
+         * dropped and counted.
+         */
+        public Builder withEventBufferSize(int eventBufferSize) {
+            if (eventBufferSize <= 0) throw new IllegalArgumentException("Event buffer size should be positive");
+
+            this.eventBufferSize = eventBufferSize;
+            return this;
+        }
+
+        /**
+         * Executor delivering state transitions to listeners. Defaults to a JVM-wide single notifier thread.
+         */
+        public Builder withNotifier(Executor notifier) {
+            if (notifier == null) throw new IllegalArgumentException("Notifier should not be null");
+
+            this.notifier = notifier;
+            return this;
+        }
+
+        /**
+         * Sink for state transitions and rejections, called synchronously. Unless a control is given, the breaker
+         * control reports its evaluations to it too.
+         */
+        public Builder withEvents(BreakerEvents events) {
+            if (events == null) throw new IllegalArgumentException("Events should not be null");
+
+            breaker.events = events;
+            return this;
+        }
+
+        public Builder withControl(CircuitControl control) {
+            if (control == null) throw new IllegalArgumentException("Control should not be null");
+
+            breaker.control = control;
+            return this;
+        }
+
+        /**
+         * Scheduler running the state switch. Defaults to the JVM-wide shared scheduler.
+         */
+        public Builder withScheduler(ScheduledExecutorService scheduler) {
+            if (scheduler == null) throw new IllegalArgumentException("Scheduler should not be null");
+
+            breaker.pool = scheduler;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("Clock should not be null");
+
+            breaker.clock = clock;
+            return this;
+        }
+
+        public CircuitBreaker build() {
+            if (built.compareAndSet(false,true)) {
+                breaker.publisher = new TransitionPublisher(eventBufferSize, notifier != null ? notifier : Schedulers.notifier());
+                breaker.stateSince = breaker.clock.currentTimeMillis();
+
+                if (eventDriven && breaker.control != null && !(breaker.control instanceof ObservableCircuitControl))
+                    throw new IllegalArgumentException("Event driven breakers require an observable control");
+
+                if (!eventDriven)
+                    breaker.switchFuture = breaker.pool.scheduleAtFixedRate(new Switch(breaker), 1000, precision, TimeUnit.MILLISECONDS);
+
+                if (breaker.control == null) {
+                    OnOffCircuitControl.Builder control = OnOffCircuitControl.builder().withClock(breaker.clock)
+                            .withScheduler(breaker.pool).withEvents(breaker.events);
+
+                    if (breaker.parent != null) {
+                        if (!(breaker.parent.control instanceof OnOffCircuitControl))
+                            throw new IllegalArgumentException("Parent control should be an OnOffCircuitControl");
+
+                        OnOffCircuitControl parentControl = (OnOffCircuitControl) breaker.parent.control;
+                        control.withBucketWidth(parentControl.getBucketWidth()).withParent(parentControl);
+                    }
+
+                    breaker.control = control.build();
+                    breaker.ownsControl = true;
+                }
+
+                if (eventDriven) {
+                    breaker.eventSwitch = new EventSwitch(breaker);
+                    ((ObservableCircuitControl) breaker.control).addListener(breaker.eventSwitch);
+                    breaker.eventSwitch.onVerdictChange(breaker.control);
+                }
+
+                if (breaker.control instanceof TimedCircuitControl && ((TimedCircuitControl) breaker.control).isLatencyAware())
+                    breaker.timedControl = (TimedCircuitControl) breaker.control;
+
+                if (breaker.control instanceof LimitCircuitControl)
+                    breaker.limitControl = (LimitCircuitControl) breaker.control;
+
+                breaker.bulkhead = breaker.maxConcurrency > 0 || breaker.limitControl != null;
+
+                if (breaker.timeout > 0 && breaker.executor == null)
+                    breaker.executor = Schedulers.executor();
+            }
+
+            return breaker;
+        }
+    }
+
+    private CircuitBreaker() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    protected void setState(State state) {
+        if (state == State.HALF_OPEN) trial = new Trial();
+
+        State previous = this.state;
+        if (previous == state) return;
+
+        long now = clock.currentTimeMillis();
+
+        this.stateSince = now;
+        this.state = state;
+
+        double score = getScore();
+
+        events.transition(previous, state, score);
+
+        if (publisher.hasListeners())
+            publisher.publish(new StateTransition(this, previous, state, now, score));
+    }
+
+    private double getScore() {
+        return control instanceof ScoredCircuitControl ? ((ScoredCircuitControl) control).getScore() : Double.NaN;
+    }
+
+    /**
+     * Takes a read-only snapshot of the breaker and, for an {@link OnOffCircuitControl}, of its window buckets.
+     * Nothing is locked, so each value is current but they are not read atomically together.
+     */
+    public BreakerSnapshot snapshot() {
+        long since = stateSince;
+        State current = state;
+
+        List<BucketSnapshot> buckets = control instanceof OnOffCircuitControl
+                ? ((OnOffCircuitControl) control).getBuckets()
+                : Collections.<BucketSnapshot>emptyList();
+
+        return new BreakerSnapshot(current, since, clock.currentTimeMillis(), getScore(), getOpenRejections(),
+                getBulkheadRejections(), getInFlight(), getDroppedEvents(), buckets);
+    }
+
+    /**
+     * Registers a listener for state transitions. Listeners run on the notifier thread, so they never delay the
+     * switch or the calls through the breaker.
+     */
+    public void addListener(StateListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener should not be null");
+
+        publisher.addListener(listener);
+    }
+
+    public void removeListener(StateListener listener) {
+        publisher.removeListener(listener);
+    }
+
+    /**
+     * Number of transitions dropped because the event buffer was full.
+     */
+    public long getDroppedEvents() {
+        return publisher.getDropped();
+    }
+
+    protected boolean isTrialBounded() {
+        return halfOpenPermits > 0;
+    }
+
+    /**
+     * Returns whether the half open trial calls passed, or null while some of them are still pending.
+     */
+    protected Boolean getTrialVerdict() {
+        Trial current = trial;
+
+        int successes = current.successes.get();
+        int failures = current.failures.get();
+
+        if (successes + failures < halfOpenPermits) return null;
+
+        return successes * 1.0 / (successes + failures) > halfOpenMinScore;
+    }
+
+    protected void closeOnTrial() {
+        if (control instanceof ResettableCircuitControl) ((ResettableCircuitControl) control).reset();
+
+        setState(State.CLOSED);
+    }
+
+    public CircuitBreaker getParent() {
+        return parent;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public long getTryWindow() {
+        return tryWindow;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Number of calls rejected because the breaker was open or its half open trial calls were all taken.
+     */
+    public long getOpenRejections() {
+        return openRejections.sum();
+    }
+
+    /**
+     * Number of calls rejected because the bulkhead was full.
+     */
+    public long getBulkheadRejections() {
+        return bulkheadRejections.sum();
+    }
+
+    protected CircuitControl getControl() {
+        return control;
+    }
+
+    protected Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Time of the last state change, whether made by the switch or from outside.
+     */
+    protected long getStateSince() {
+        return stateSince;
+    }
+
+    protected ScheduledExecutorService getPool() {
+        return pool;
+    }
+
+    public void shutdown() {
+        if (switchFuture != null) switchFuture.cancel(true);
+
+        if (eventSwitch != null) {
+            ((ObservableCircuitControl) control).removeListener(eventSwitch);
+            eventSwitch.cancel();
+        }
+
+        if (ownsControl) ((OnOffCircuitControl) control).shutdown();
+    }
+
+    public <T> T run(Action<T> action) throws RejectedExecutionException, ExecutionException {
+        return call(action, null);
+    }
+
+    /**
+     * Runs the action, returning the fallback result instead of throwing when the breaker rejects the call.
+     * Failures of the action itself are still thrown.
+     */
+    public <T> T run(Action<T> action, Fallback<T> fallback) throws ExecutionException {
+        if (fallback == null) throw new IllegalArgumentException("Fallback should not be null");
+
+        return call(action, fallback);
+    }
+
+    private <T> T call(Action<T> action, Fallback<T> fallback) throws ExecutionException {
+        State current = state;
+        Trial trial = trialOf(current);
+
+        RejectedExecutionException rejection = admit(current, trial, true);
+        if (rejection != null) return reject(fallback, rejection);
+
+        try {
+            return execute(action, trial);
+        } catch (RejectedExecutionException e) {
+            releaseTrial(trial);
+
+            if (fallback != null) return fallback.get(e);
+
+            throw e;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Runs the action and reports its outcome, or the rejection, as a {@link Result} without throwing. Rejected
+     * results are preallocated by the breaker, so a rejected call does not allocate.
+     */
+    public <T> Result<T> tryRun(Action<T> action) {
+        State current = state;
+        Trial trial = trialOf(current);
+
+        RejectedExecutionException rejection = admit(current, trial, true);
+        if (rejection != null) return rejectedResult(rejection);
+
+        try {
+            Result<T> result = attempt(action, trial);
+            if (result.isRejected()) releaseTrial(trial);
+
+            return result;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Checks whether a call may run in the given state and takes its bulkhead permit, and its permit in the given
+     * trial unless it is null. Returns the preallocated rejection when it may not, or null once the call is admitted
+     * and must be released.
+     */
+    private RejectedExecutionException admit(State current, Trial trial, boolean wait) {
+        switch (current) {
+            case CLOSED:
+            case HALF_OPEN:
+                break;
+
+            case OPEN:
+                return refuse(openRejections, openRejection);
+
+            default:
+                throw new IllegalArgumentException("Unknown state " + current);
+        }
+
+        if (parent != null && parent.state == State.OPEN)
+            return refuse(openRejections, openRejection);
+
+        if (bulkhead && !(wait ? acquirePermit() : tryAcquirePermit()))
+            return refuse(bulkheadRejections, bulkheadRejection);
+
+        if (trial != null && trial.admitted.incrementAndGet() > halfOpenPermits) {
+            release();
+
+            return refuse(openRejections, halfOpenRejection);
+        }
+
+        return null;
+    }
+
+    private RejectedExecutionException refuse(LongAdder counter, RejectedExecutionException rejection) {
+        counter.increment();
+        events.rejection(rejection);
+
+        return rejection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Result<T> rejectedResult(RejectedExecutionException rejection) {
+        if (rejection == openRejection) return (Result<T>) openResult;
+        if (rejection == halfOpenRejection) return (Result<T>) halfOpenResult;
+
+        return (Result<T>) bulkheadResult;
+    }
+
+    /**
+     * Returns the trial a call made in the given state belongs to, or null if it is not a trial call. The state is
+     * read before the trial, and a new trial starts before the state changes, so a trial call is never counted in a
+     * trial older than the state it saw.
+     */
+    private Trial trialOf(State current) {
+        return current == State.HALF_OPEN && halfOpenPermits > 0 ? trial : null;
+    }
+
+    private void release() {
+        if (bulkhead) inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gives back the trial permit of a call that never ran.
+     */
+    private void releaseTrial(Trial trial) {
+        if (trial != null) trial.admitted.decrementAndGet();
+    }
+
+    private <T> T reject(Fallback<T> fallback, RejectedExecutionException preallocated) {
+        if (fallback != null) return fallback.get(preallocated);
+
+        throw rejection(preallocated);
+    }
+
+    /**
+     * Returns the preallocated rejection when stackless rejections are enabled, and a fresh copy otherwise.
+     */
+    private RejectedExecutionException rejection(RejectedExecutionException preallocated) {
+        if (stacklessRejections) return preallocated;
+
+        if (preallocated instanceof BulkheadFullException) return new BulkheadFullException(preallocated.getMessage());
+
+        return new BreakerOpenException(preallocated.getMessage());
+    }
+
+    private boolean acquirePermit() {
+        if (tryAcquirePermit()) return true;
+
+        if (maxWait > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait);
+
+            do {
+                LockSupport.parkNanos(PERMIT_BACKOFF_NANOS);
+                if (tryAcquirePermit()) return true;
+            } while (System.nanoTime() - deadline < 0);
+        }
+
+        return false;
+    }
+
+    /**
+     * Current cap on calls in flight: the lower of the configured max concurrency and the limit of a
+     * {@link LimitCircuitControl}.
+     */
+    protected int getLimit() {
+        if (limitControl == null) return maxConcurrency;
+
+        int limit = limitControl.getLimit();
+
+        return maxConcurrency > 0 ? Math.min(limit, maxConcurrency) : limit;
+    }
+
+    private boolean tryAcquirePermit() {
+        int limit = getLimit();
+        int current;
+
+        do {
+            current = inFlight.get();
+            if (current >= limit) return false;
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private <T> T execute(Action<T> action, Trial trial) throws ExecutionException {
+        if (timeout > 0) return executeWithTimeout(action, trial);
+
+        long start = timedControl != null ? System.nanoTime() : 0;
+
+        try {
+            T output = action.get();
+            register(action, output, null, start, trial);
+
+            return output;
+
+        } catch (Exception e) {
+            register(action, null, e, start, trial);
+
+            throw new ExecutionException(e);
+        }
+    }
+
+    private <T> Result<T> attempt(Action<T> action, Trial trial) {
+        if (timeout > 0) {
+            try {
+                return Result.success(executeWithTimeout(action, trial));
+            } catch (RejectedExecutionException e) {
+                return Result.rejected(e);
+            } catch (CallTimeoutException e) {
+                return Result.failure(e);
+            } catch (ExecutionException e) {
+                return Result.failure(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+            }
+        }
+
+        long start = timedControl != null ? System.nanoTime() : 0;
+
+        try {
+            T output = action.get();
+            register(action, output, null, start, trial);
+
+            return Result.success(output);
+
+        } catch (Exception e) {
+            register(action, null, e, start, trial);
+
+            return Result.failure(e);
+        }
+    }
+
+    /**
+     * Runs the action on the executor, waiting at most the timeout. Throws the executor's
+     * {@link RejectedExecutionException}, without registering anything, if it refuses the action.
+     */
+    private <T> T executeWithTimeout(final Action<T> action, Trial trial) throws ExecutionException {
+        long start = timedControl != null ? System.nanoTime() : 0;
+        Future<T> future = executor.submit(action::get);
+
+        try {
+            T output = future.get(timeout, TimeUnit.MILLISECONDS);
+            register(action, output, null, start, trial);
+
+            return output;
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+
+            CallTimeoutException timedOut = new CallTimeoutException("Action timed out after " + timeout + "ms");
+            register(action, null, timedOut, start, trial);
+
+            throw timedOut;
+
+        } catch (ExecutionException e) {
+            Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            register(action, null, cause, start, trial);
+
+            throw new ExecutionException(cause);
+
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+
+            register(action, null, e, start, trial);
+
+            throw new ExecutionException(e);
+        }
+    }
+
+    /**
+     * Registers the outcome of a call with the control, and with its trial unless it is null. A trial call is
+     * validated once and the control gets the verdict, so {@link Action#isValid} is not evaluated twice.
+     */
+    private <T> void register(Action<T> action, T output, Exception e, long start, Trial trial) {
+        if (trial == null) {
+            register(action, output, e, start);
+            return;
+        }
+
+        boolean valid = action.isValid(output, e);
+        register(Verdict.<T>of(valid), output, e, start);
+        registerTrial(trial, valid);
+    }
+
+    /**
+     * Registers the outcome of an async call. Controls take an {@link Action}, so they get the verdict of the
+     * {@link AsyncAction}.
+     */
+    private <T> void register(AsyncAction<T> action, T output, Exception e, long start, Trial trial) {
+        boolean valid = action.isValid(output, e);
+
+        register(Verdict.<T>of(valid), output, e, start);
+        if (trial != null) registerTrial(trial, valid);
+    }
+
+    private <T> void register(Action<T> action, T output, Exception e, long start) {
+        if (timedControl != null) {
+            if (e == null)
+                timedControl.register(action, output, System.nanoTime() - start);
+            else
+                timedControl.register(action, e, System.nanoTime() - start);
+        } else {
+            if (e == null)
+                control.register(action, output);
+            else
+                control.register(action, e);
+        }
+    }
+
+    /**
+     * Counts the result of a trial call. Results of calls admitted in an earlier half open period are ignored.
+     */
+    private void registerTrial(Trial trial, boolean result) {
+        if (trial != this.trial) return;
+
+        int completed = result ? trial.successes.incrementAndGet() + trial.failures.get() : trial.failures.incrementAndGet() + trial.successes.get();
+
+        if (completed == halfOpenPermits && eventSwitch != null) eventSwitch.onTrialComplete();
+    }
+
+    /**
+     * Runs an action that completes asynchronously. Rejections come back as a future failed with
+     * {@link RejectedExecutionException} and the outcome is registered with the control when the stage completes,
+     * so no thread is held while the call is in flight.
+     */
+    public <T> CompletableFuture<T> runAsync(AsyncAction<T> action) {
+        State current = state;
+        Trial trial = trialOf(current);
+
+        RejectedExecutionException rejection = admit(current, trial, false);
+        if (rejection != null) return rejected(rejection);
+
+        long start = timedControl != null ? System.nanoTime() : 0;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        CompletionStage<T> stage;
+
+        try {
+            stage = action.get();
+        } catch (Exception e) {
+            return failAsync(action, e, start, trial, result);
+        }
+
+        if (stage == null)
+            return failAsync(action, new NullPointerException("Async action returned a null stage"), start, trial, result);
+
+        stage.whenComplete((output, t) -> {
+            release();
+
+            if (t == null) {
+                register(action, output, null, start, trial);
+                result.complete(output);
+            } else {
+                Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+                Exception e = cause instanceof Exception ? (Exception) cause : new ExecutionException(cause);
+
+                register(action, null, e, start, trial);
+                result.completeExceptionally(cause);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Completes a call whose action failed before returning a stage, releasing its permit.
+     */
+    private <T> CompletableFuture<T> failAsync(AsyncAction<T> action, Exception e, long start, Trial trial, CompletableFuture<T> result) {
+        release();
+
+        register(action, null, e, start, trial);
+        result.completeExceptionally(e);
+
+        return result;
+    }
+
+    private <T> CompletableFuture<T> rejected(RejectedExecutionException preallocated) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(rejection(preallocated));
+
+        return future;
+    }
+
+    /**
+     * Action that hands a verdict already reached to the control. It is never run.
+     */
+    private static final class Verdict implements Action<Object> {
+        private static final Verdict VALID = new Verdict(true);
+        private static final Verdict INVALID = new Verdict(false);
+
+        private final boolean valid;
+
+        private Verdict(boolean valid) {
+            this.valid = valid;
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> Action<T> of(boolean valid) {
+            return (Action<T>) (Action<?>) (valid ? VALID : INVALID);
+        }
+
+        @Override
+        public Object get() {
+            throw new UnsupportedOperationException("Verdicts are not run");
+        }
+
+        @Override
+        public boolean isValid(Object result, Exception e) {
+            return valid;
+        }
+    }
+
+    /**
+     * Trial calls of one half open period. A new one starts each time the breaker goes half open.
+     */
+    private static final class Trial {
+        private final AtomicInteger admitted = new AtomicInteger();
+        private final AtomicInteger successes = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+    }
+
+}
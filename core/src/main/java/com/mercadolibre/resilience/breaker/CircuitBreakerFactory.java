@@ -0,0 +1,7 @@
+package com.mercadolibre.resilience.breaker;
+
+public interface CircuitBreakerFactory {
+
+    CircuitBreaker create(String name);
+
+}
@@ -0,0 +1,241 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.clock.Clock;
+import com.mercadolibre.resilience.breaker.clock.SystemClock;
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Breakers by name, created on first use from a {@link CircuitBreakerFactory}. Lookups of existing breakers are
+ * lock-free. Breakers not used for {@code idleTimeout} milliseconds are evicted and shut down, and each insertion
+ * past {@code maxSize} evicts an approximately least recently used breaker. Breakers are kept in insertion order
+ * and one used since it was queued gets a second chance at the back of the queue, so an insertion looks at a
+ * bounded number of breakers whatever the size of the registry.
+ * A caller still holding an evicted breaker can keep using it, but it no longer switches state.
+ */
+public class CircuitBreakerRegistry {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final long DEFAULT_IDLE_TIMEOUT = 10 * 60 * 1000;
+
+    private static final int MAX_SECOND_CHANCES = 8;
+
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private CircuitBreakerFactory factory;
+    private Clock clock = SystemClock.INSTANCE;
+    private ScheduledExecutorService pool = Schedulers.shared();
+
+    private final ConcurrentHashMap<String, Entry> breakers = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private ScheduledFuture<?> evictionFuture;
+
+    private static final class Entry {
+        private final String name;
+        private final CircuitBreaker breaker;
+        private volatile long lastAccess;
+        private volatile long queuedAccess;
+
+        private Entry(String name, CircuitBreaker breaker, long lastAccess) {
+            this.name = name;
+            this.breaker = breaker;
+            this.lastAccess = lastAccess;
+            this.queuedAccess = lastAccess;
+        }
+    }
+
+    public static final class Builder {
+        private final CircuitBreakerRegistry registry;
+        private boolean startWorkers = true;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.registry = new CircuitBreakerRegistry();
+        }
+
+        public Builder withFactory(CircuitBreakerFactory factory) {
+            if (factory == null) throw new IllegalArgumentException("Factory should not be null");
+
+            registry.factory = factory;
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+            if (maxSize <= 0) throw new IllegalArgumentException("Max size should be positive");
+
+            registry.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder withIdleTimeout(long idleTimeout) {
+            if (idleTimeout <= 0) throw new IllegalArgumentException("Idle timeout should be positive");
+
+            registry.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("Clock should not be null");
+
+            registry.clock = clock;
+            return this;
+        }
+
+        /**
+         * Scheduler running idle eviction. Defaults to the JVM-wide shared scheduler.
+         */
+        public Builder withScheduler(ScheduledExecutorService scheduler) {
+            if (scheduler == null) throw new IllegalArgumentException("Scheduler should not be null");
+
+            registry.pool = scheduler;
+            return this;
+        }
+
+        public Builder startWorkers(boolean startWorkers) {
+            this.startWorkers = startWorkers;
+            return this;
+        }
+
+        public CircuitBreakerRegistry build() {
+            if (!built.compareAndSet(false,true)) return registry;
+
+            if (registry.factory == null) throw new IllegalArgumentException("Factory should not be null");
+
+            if (startWorkers) {
+                long interval = Math.max(registry.idleTimeout / 2, 1);
+                registry.evictionFuture = registry.pool.scheduleAtFixedRate(new Runnable() {
+                    @Override
+                    public void run() {
+                        registry.evictIdle();
+                    }
+                }, interval, interval, TimeUnit.MILLISECONDS);
+            }
+
+            return registry;
+        }
+    }
+
+    private CircuitBreakerRegistry() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the breaker with the given name, creating it if needed.
+     */
+    public CircuitBreaker get(String name) {
+        if (name == null) throw new IllegalArgumentException("Name should not be null");
+
+        long now = clock.currentTimeMillis();
+
+        Entry entry = breakers.get(name);
+        if (entry != null) {
+            if (entry.lastAccess != now) entry.lastAccess = now;
+
+            return entry.breaker;
+        }
+
+        final Entry[] created = new Entry[1];
+        entry = breakers.computeIfAbsent(name, key -> created[0] = new Entry(key, factory.create(key), now));
+
+        // Queued once the map holds it, so eviction never takes it for a removed breaker
+        if (entry == created[0]) {
+            queue.offer(entry);
+
+            if (breakers.size() > maxSize) evictOverflow();
+        }
+
+        return entry.breaker;
+    }
+
+    /**
+     * Returns the breaker with the given name, or null if the registry does not hold it.
+     */
+    public CircuitBreaker find(String name) {
+        Entry entry = breakers.get(name);
+
+        return entry != null ? entry.breaker : null;
+    }
+
+    public boolean remove(String name) {
+        Entry entry = breakers.remove(name);
+        if (entry == null) return false;
+
+        entry.breaker.shutdown();
+        return true;
+    }
+
+    public int size() {
+        return breakers.size();
+    }
+
+    /**
+     * Evicts the breakers that have not been used for {@code idleTimeout} milliseconds, and drops the breakers no
+     * longer in the registry from the eviction queue.
+     */
+    public void evictIdle() {
+        long limit = clock.currentTimeMillis() - idleTimeout;
+
+        for (Map.Entry<String, Entry> e : breakers.entrySet()) {
+            if (e.getValue().lastAccess <= limit) evict(e.getKey(), e.getValue());
+        }
+
+        queue.removeIf(entry -> breakers.get(entry.name) != entry);
+    }
+
+    /**
+     * Evicts from the head of the queue until the registry is back to {@code maxSize}. A breaker used since it was
+     * queued goes to the back instead, up to {@link #MAX_SECOND_CHANCES} times per insertion.
+     */
+    private void evictOverflow() {
+        int chances = MAX_SECOND_CHANCES;
+
+        while (breakers.size() > maxSize) {
+            Entry entry = queue.poll();
+            if (entry == null) return;
+
+            if (breakers.get(entry.name) != entry) continue;
+
+            long lastAccess = entry.lastAccess;
+            if (lastAccess != entry.queuedAccess && chances-- > 0) {
+                entry.queuedAccess = lastAccess;
+                queue.offer(entry);
+            } else
+                evict(entry.name, entry);
+        }
+    }
+
+    private void evict(String name, Entry entry) {
+        if (breakers.remove(name, entry)) entry.breaker.shutdown();
+    }
+
+    /**
+     * Stops idle eviction and shuts down every breaker in the registry.
+     */
+    public void shutdown() {
+        if (evictionFuture != null) evictionFuture.cancel(false);
+
+        queue.clear();
+
+        for (String name : breakers.keySet())
+            remove(name);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.control.CircuitControl;
+import com.mercadolibre.resilience.breaker.control.ControlListener;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event driven counterpart of {@link Switch}. Moves the breaker as soon as the control verdict changes and uses
+ * one-shot timers for the open interval and the half open try window, so an idle breaker never wakes up.
+ */
+class EventSwitch implements ControlListener {
+
+    private final CircuitBreaker breaker;
+
+    private ScheduledFuture<?> timer;
+
+    private final Runnable intervalExpired = new Runnable() {
+        @Override
+        public void run() {
+            checkShouldHalfOpen();
+        }
+    };
+
+    private final Runnable tryWindowExpired = new Runnable() {
+        @Override
+        public void run() {
+            checkTryWindow();
+        }
+    };
+
+    protected EventSwitch(CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    @Override
+    public synchronized void onVerdictChange(CircuitControl control) {
+        switch (breaker.getState()) {
+            case CLOSED:
+                if (control.shouldOpen()) open();
+                break;
+
+            case HALF_OPEN:
+                if (!breaker.isTrialBounded() && control.shouldClose()) close();
+                break;
+
+            default: break;
+        }
+    }
+
+    protected synchronized void onTrialComplete() {
+        if (breaker.getState() != State.HALF_OPEN) return;
+
+        if (Boolean.TRUE.equals(breaker.getTrialVerdict())) {
+            cancel();
+            breaker.closeOnTrial();
+        } else {
+            open();
+        }
+    }
+
+    private void open() {
+        breaker.setState(State.OPEN);
+        arm(intervalExpired, breaker.getInterval());
+    }
+
+    private void close() {
+        cancel();
+        breaker.setState(State.CLOSED);
+    }
+
+    private synchronized void checkShouldHalfOpen() {
+        if (breaker.getState() != State.OPEN) return;
+
+        breaker.setState(State.HALF_OPEN);
+
+        if (!breaker.isTrialBounded() && breaker.getControl().shouldClose())
+            close();
+        else
+            arm(tryWindowExpired, breaker.getTryWindow());
+    }
+
+    private synchronized void checkTryWindow() {
+        if (breaker.getState() != State.HALF_OPEN) return;
+
+        if (!breaker.isTrialBounded() && breaker.getControl().shouldClose())
+            close();
+        else
+            open();
+    }
+
+    private void arm(Runnable task, long delay) {
+        cancel();
+        timer = breaker.getPool().schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    protected synchronized void cancel() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+}
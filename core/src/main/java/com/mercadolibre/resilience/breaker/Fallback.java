@@ -0,0 +1,13 @@
+package com.mercadolibre.resilience.breaker;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Supplies a result for calls rejected by the breaker. The rejection is a shared, stackless instance
+ * telling why the call was rejected; it must not be modified.
+ */
+public interface Fallback<T> {
+
+    T get(RejectedExecutionException rejection);
+
+}
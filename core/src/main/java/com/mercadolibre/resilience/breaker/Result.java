@@ -0,0 +1,96 @@
+package com.mercadolibre.resilience.breaker;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Outcome of {@link CircuitBreaker#tryRun(Action)}: the value returned by the action, the exception it threw,
+ * or the reason the breaker rejected the call.
+ */
+public final class Result<T> {
+
+    public enum Kind {
+        SUCCESS, FAILURE, REJECTED
+    }
+
+    private final Kind kind;
+    private final T value;
+    private final Exception cause;
+
+    private Result(Kind kind, T value, Exception cause) {
+        this.kind = kind;
+        this.value = value;
+        this.cause = cause;
+    }
+
+    public static <T> Result<T> success(T value) {
+        return new Result<>(Kind.SUCCESS, value, null);
+    }
+
+    public static <T> Result<T> failure(Exception cause) {
+        if (cause == null) throw new IllegalArgumentException("Cause should not be null");
+
+        return new Result<>(Kind.FAILURE, null, cause);
+    }
+
+    public static <T> Result<T> rejected(RejectedExecutionException rejection) {
+        if (rejection == null) throw new IllegalArgumentException("Rejection should not be null");
+
+        return new Result<>(Kind.REJECTED, null, rejection);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isSuccess() {
+        return kind == Kind.SUCCESS;
+    }
+
+    public boolean isFailure() {
+        return kind == Kind.FAILURE;
+    }
+
+    public boolean isRejected() {
+        return kind == Kind.REJECTED;
+    }
+
+    /**
+     * Returns the value returned by the action, or null unless this is a success.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the exception thrown by the action, or null unless this is a failure.
+     */
+    public Exception getFailure() {
+        return kind == Kind.FAILURE ? cause : null;
+    }
+
+    /**
+     * Returns the rejection, or null unless the breaker rejected the call.
+     */
+    public RejectedExecutionException getRejection() {
+        return kind == Kind.REJECTED ? (RejectedExecutionException) cause : null;
+    }
+
+    public T getOrElse(T other) {
+        return kind == Kind.SUCCESS ? value : other;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case SUCCESS:
+                return "Result{success=" + value + "}";
+
+            case FAILURE:
+                return "Result{failure=" + cause + "}";
+
+            default:
+                return "Result{rejected=" + cause.getMessage() + "}";
+        }
+    }
+
+}
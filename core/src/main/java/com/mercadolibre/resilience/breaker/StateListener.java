@@ -0,0 +1,10 @@
+package com.mercadolibre.resilience.breaker;
+
+/**
+ * Receives breaker state transitions on the breaker notifier thread, never on the thread that changed the state.
+ */
+public interface StateListener {
+
+    void onTransition(StateTransition transition);
+
+}
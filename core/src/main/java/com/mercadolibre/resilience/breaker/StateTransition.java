@@ -0,0 +1,50 @@
+package com.mercadolibre.resilience.breaker;
+
+public final class StateTransition {
+
+    private final CircuitBreaker breaker;
+    private final State from;
+    private final State to;
+    private final long timestamp;
+    private final double score;
+
+    StateTransition(CircuitBreaker breaker, State from, State to, long timestamp, double score) {
+        this.breaker = breaker;
+        this.from = from;
+        this.to = to;
+        this.timestamp = timestamp;
+        this.score = score;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public State getFrom() {
+        return from;
+    }
+
+    public State getTo() {
+        return to;
+    }
+
+    /**
+     * Breaker clock time of the transition, in milliseconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Control score at the time of the transition, or NaN if the control does not expose one.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "StateTransition{" + from + "->" + to + ", timestamp=" + timestamp + ", score=" + score + "}";
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.mercadolibre.resilience.breaker;
+
+
+class Switch implements Runnable {
+
+    private final CircuitBreaker breaker;
+
+    protected Switch(CircuitBreaker breaker) {
+        this.breaker = breaker;
+    }
+
+    @Override
+    public void run() {
+        switch (breaker.getState()) {
+            case CLOSED:
+                checkShouldOpen(); break;
+
+            case OPEN:
+                checkShouldHalfOpen(); break;
+
+            case HALF_OPEN:
+                checkShouldClose(); break;
+
+            default: break;
+        }
+    }
+
+    private void checkShouldOpen() {
+        if (breaker.getControl().shouldOpen())
+            breaker.setState(State.OPEN);
+    }
+
+    /**
+     * Time spent in the current state. It is measured from the breaker's last state change rather than from the
+     * switch's own transitions, so a state set from outside is timed too.
+     */
+    private long inState() {
+        return breaker.getClock().currentTimeMillis() - breaker.getStateSince();
+    }
+
+    private void checkShouldHalfOpen() {
+        if (inState() >= breaker.getInterval())
+            breaker.setState(State.HALF_OPEN);
+    }
+
+    private void checkShouldClose() {
+        if (breaker.isTrialBounded()) {
+            checkTrial();
+            return;
+        }
+
+        if (breaker.getControl().shouldClose())
+            breaker.setState(State.CLOSED);
+        else if (inState() >= breaker.getTryWindow())
+            breaker.setState(State.OPEN);
+    }
+
+    private void checkTrial() {
+        Boolean passed = breaker.getTrialVerdict();
+
+        if (Boolean.TRUE.equals(passed))
+            breaker.closeOnTrial();
+        else if (passed != null || inState() >= breaker.getTryWindow())
+            breaker.setState(State.OPEN);
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.mercadolibre.resilience.breaker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer ring of transitions, drained on an executor. Publishing never blocks: a producer
+ * claims a slot with a CAS on the tail, and when the ring is full the transition is dropped and counted. Only one
+ * drain runs at a time, so listeners see the transitions of a breaker in order.
+ */
+class TransitionPublisher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransitionPublisher.class);
+
+    private final AtomicReferenceArray<StateTransition> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final List<StateListener> listeners = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    protected TransitionPublisher(int capacity, Executor executor) {
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.executor = executor;
+    }
+
+    protected void addListener(StateListener listener) {
+        listeners.add(listener);
+    }
+
+    protected void removeListener(StateListener listener) {
+        listeners.remove(listener);
+    }
+
+    protected boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    protected long getDropped() {
+        return dropped.get();
+    }
+
+    protected boolean publish(StateTransition transition) {
+        long t;
+        do {
+            t = tail.get();
+            if (t - head >= slots.length()) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+
+        slots.lazySet((int) (t & mask), transition);
+
+        if (draining.compareAndSet(false, true)) executor.execute(drain);
+
+        return true;
+    }
+
+    private void drain() {
+        do {
+            long h = head;
+            StateTransition transition;
+
+            while ((transition = slots.get((int) (h & mask))) != null) {
+                slots.lazySet((int) (h & mask), null);
+                head = ++h;
+
+                deliver(transition);
+            }
+
+            draining.set(false);
+
+        } while (tail.get() != head && draining.compareAndSet(false, true));
+    }
+
+    private void deliver(StateTransition transition) {
+        for (StateListener listener : listeners) {
+            try {
+                listener.onTransition(transition);
+            } catch (RuntimeException e) {
+                LOGGER.warn("State listener failed on " + transition, e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.mercadolibre.resilience.breaker.clock;
+
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clock whose time is published into a volatile by a background ticker, so reading it is a plain field load.
+ * Readings are at most {@code precision} milliseconds behind the system clock.
+ */
+public class CachedClock implements Clock {
+
+    public static final long DEFAULT_PRECISION = 10;
+
+    private volatile long now = System.currentTimeMillis();
+
+    private final ScheduledFuture<?> tickerFuture;
+
+    public CachedClock() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public CachedClock(long precision) {
+        this(precision, Schedulers.shared());
+    }
+
+    public CachedClock(long precision, ScheduledExecutorService scheduler) {
+        if (precision <= 0) throw new IllegalArgumentException("Precision should be positive");
+        if (scheduler == null) throw new IllegalArgumentException("Scheduler should not be null");
+
+        tickerFuture = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                now = System.currentTimeMillis();
+            }
+        }, precision, precision, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now;
+    }
+
+    public void shutdown() {
+        tickerFuture.cancel(false);
+    }
+
+}
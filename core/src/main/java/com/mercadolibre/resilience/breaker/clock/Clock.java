@@ -0,0 +1,7 @@
+package com.mercadolibre.resilience.breaker.clock;
+
+public interface Clock {
+
+    long currentTimeMillis();
+
+}
@@ -0,0 +1,35 @@
+package com.mercadolibre.resilience.breaker.clock;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when told to, for tests and simulations.
+ */
+public class ManualClock implements Clock {
+
+    private final AtomicLong now;
+
+    public ManualClock() {
+        this(0);
+    }
+
+    public ManualClock(long now) {
+        this.now = new AtomicLong(now);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return now.get();
+    }
+
+    public void set(long millis) {
+        now.set(millis);
+    }
+
+    public long advance(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Clock can not go backwards");
+
+        return now.addAndGet(millis);
+    }
+
+}
@@ -0,0 +1,238 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Control that adapts a concurrency limit instead of opening the breaker. The limit grows by roughly one every
+ * {@code limit} successful calls within {@code tolerance} times the minimum duration observed. It shrinks by
+ * {@code backoffRatio} on a failure, or when most calls of a window of {@code limit} timed calls took longer than
+ * that, so a tail of slow calls alone does not shrink it. It shrinks at most once per {@code limit} calls, about one
+ * round trip at the limit. The minimum duration is sampled again every {@code probeInterval} calls so it follows
+ * lasting changes in the backend. Updates are lock free.
+ */
+public class AdaptiveLimitCircuitControl implements TimedCircuitControl, LimitCircuitControl {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MIN_LIMIT = 1;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    public static final double DEFAULT_TOLERANCE = 2.0;
+    public static final int DEFAULT_PROBE_INTERVAL = 1000;
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private int probeInterval = DEFAULT_PROBE_INTERVAL;
+
+    private final AtomicLong limit = new AtomicLong();
+    private final AtomicLong minRtt = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicInteger windowSamples = new AtomicInteger();
+    private final AtomicInteger windowInflated = new AtomicInteger();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong nextDecrease = new AtomicLong();
+
+    public static final class Builder {
+        private final AdaptiveLimitCircuitControl control;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.control = new AdaptiveLimitCircuitControl();
+        }
+
+        public Builder withInitialLimit(int initialLimit) {
+            if (initialLimit <= 0) throw new IllegalArgumentException("initialLimit must be positive");
+
+            control.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder withLimits(int minLimit, int maxLimit) {
+            if (minLimit <= 0) throw new IllegalArgumentException("minLimit must be positive");
+            if (maxLimit < minLimit) throw new IllegalArgumentException("maxLimit must not be lower than minLimit");
+
+            control.minLimit = minLimit;
+            control.maxLimit = maxLimit;
+            return this;
+        }
+
+        public Builder withBackoffRatio(double backoffRatio) {
+            if (backoffRatio <= 0 || backoffRatio >= 1) throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+
+            control.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Ratio over the minimum observed duration above which a call counts as a sign of overload.
+         */
+        public Builder withTolerance(double tolerance) {
+            if (tolerance < 1) throw new IllegalArgumentException("tolerance must be at least 1");
+
+            control.tolerance = tolerance;
+            return this;
+        }
+
+        public Builder withProbeInterval(int probeInterval) {
+            if (probeInterval <= 0) throw new IllegalArgumentException("probeInterval must be positive");
+
+            control.probeInterval = probeInterval;
+            return this;
+        }
+
+        public AdaptiveLimitCircuitControl build() {
+            if (!built.compareAndSet(false,true)) return control;
+
+            control.limit.set(Double.doubleToLongBits(Math.min(Math.max(control.initialLimit, control.minLimit), control.maxLimit)));
+
+            return control;
+        }
+    }
+
+    private AdaptiveLimitCircuitControl() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limit.get());
+    }
+
+    private int window() {
+        return Math.max(1, (int) limit());
+    }
+
+    private void update(boolean result, long nanos) {
+        long call = calls.incrementAndGet();
+        boolean inflated = nanos >= 0 && isInflated(nanos);
+
+        if (!result || nanos >= 0 && closesInflatedWindow(inflated))
+            decrease(call);
+        else if (!inflated)
+            increase();
+    }
+
+    private boolean isInflated(long nanos) {
+        long min;
+
+        if (samples.incrementAndGet() % probeInterval == 0) {
+            minRtt.set(nanos);
+            min = nanos;
+        } else
+            min = minRtt.accumulateAndGet(nanos, Math::min);
+
+        return nanos > min * tolerance;
+    }
+
+    /**
+     * Counts a timed call in the current window. Returns true for the call that closes a window in which more than
+     * half the calls were inflated, that is when the window median exceeds {@code tolerance} times the minimum.
+     */
+    private boolean closesInflatedWindow(boolean inflated) {
+        if (inflated) windowInflated.incrementAndGet();
+
+        int count = windowSamples.incrementAndGet();
+        if (count < window() || !windowSamples.compareAndSet(count, 0)) return false;
+
+        return windowInflated.getAndSet(0) * 2 > count;
+    }
+
+    private void increase() {
+        long bits;
+        double next;
+
+        do {
+            bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            next = Math.min(maxLimit, current + 1 / current);
+        } while (!limit.compareAndSet(bits, Double.doubleToLongBits(next)));
+    }
+
+    /**
+     * Shrinks the limit unless it already shrank within the last {@code limit} calls.
+     */
+    private void decrease(long call) {
+        long next = nextDecrease.get();
+        if (call < next || !nextDecrease.compareAndSet(next, call + window())) return;
+
+        long bits;
+        double decreased;
+
+        do {
+            bits = limit.get();
+            decreased = Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio);
+        } while (!limit.compareAndSet(bits, Double.doubleToLongBits(decreased)));
+    }
+
+    @Override
+    public <T> void register(Action<T> action, T data) {
+        update(action.isValid(data, null), -1);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, Exception e) {
+        update(action.isValid(null, e), -1);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, T data, long nanos) {
+        update(action.isValid(data, null), nanos);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, Exception e, long nanos) {
+        update(action.isValid(null, e), nanos);
+    }
+
+    /**
+     * Never opens: overload is handled by lowering the limit.
+     */
+    @Override
+    public boolean shouldOpen() {
+        return false;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return true;
+    }
+
+    @Override
+    public boolean isLatencyAware() {
+        return true;
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit();
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public long getMinRtt() {
+        return minRtt.get();
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.metrics.BreakerMetrics;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+
+/**
+ * Derives success and failure deltas from the bucket counters and flushes them to a {@link BreakerMetrics}
+ * once per collector run, so registering a call never touches the metrics sink.
+ */
+class BatchedMetrics {
+
+    private final BreakerMetrics metrics;
+
+    private long lastKey = Long.MIN_VALUE;
+    private long lastSuccesses;
+    private long lastFailures;
+
+    protected BatchedMetrics(BreakerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    protected BreakerMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected void flush(StatsRing ring, long now) {
+        long successes = 0;
+        long failures = 0;
+        long currentSuccesses = 0;
+        long currentFailures = 0;
+
+        for (long key = Math.max(lastKey, now - ring.capacity() + 1); key <= now; key++) {
+            Stats s = ring.get(key);
+            if (s == null) continue;
+
+            long sc = s.successCount();
+            long fc = s.failureCount();
+
+            if (key == now) {
+                currentSuccesses = sc;
+                currentFailures = fc;
+            }
+
+            if (key == lastKey) {
+                sc -= lastSuccesses;
+                fc -= lastFailures;
+            }
+
+            successes += sc;
+            failures += fc;
+        }
+
+        lastKey = now;
+        lastSuccesses = currentSuccesses;
+        lastFailures = currentFailures;
+
+        if (successes > 0) metrics.success(successes);
+        if (failures > 0) metrics.failure(failures);
+    }
+
+}
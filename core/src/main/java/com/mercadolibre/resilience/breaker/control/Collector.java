@@ -0,0 +1,298 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.stats.LatencyHistogram;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+
+import java.util.Arrays;
+
+
+class Collector implements Runnable {
+
+    public static final double[] DEFAULT_WEIGHTS = new double[]{0.1, 0.3, 0.6};
+
+    private double[] weights = DEFAULT_WEIGHTS;
+
+    private OnOffCircuitControl control;
+
+    private volatile long scoredKey = Long.MIN_VALUE;
+    private double closedScore;
+    private double partialScore;
+    private long closedSamples;
+    private long partialSamples;
+    private boolean closedComplete;
+    private boolean partialComplete;
+    private boolean slow;
+    private volatile double score = Double.NaN;
+
+    // Per-slot rates and counts captured when each bucket closed, indexed by key modulo the window length
+    private double[] rates;
+    private long[] counts;
+    private long windowSamples;
+    private int incomplete;
+    private int slides;
+    private StatsRing scannedMerged;
+    private long[] latency;
+
+    public static class Builder {
+        private final Collector collector = new Collector();
+
+        private Builder() {
+        }
+
+        public Builder withWeights(double[] weights) {
+            if (weights == null || weights.length == 0 || weights.length > 120)
+                throw new IllegalArgumentException("Weights must be an array of 1 to 120 elements");
+
+            double sum = 0;
+            for (double w : weights) {
+                if (w < 0) throw new IllegalArgumentException("All elements must be non negative");
+
+                sum += w;
+            }
+
+            if (sum == 0) throw new IllegalArgumentException("At least one weight must be positive") ;
+
+            if (sum != 1) {
+                double[] normalized = new double[weights.length];
+                for (int i = 0; i < weights.length; i++) {
+                    normalized[i] = weights[i] / sum;
+                }
+
+                collector.weights = normalized;
+            } else
+                collector.weights = weights;
+
+            return this;
+        }
+
+        public Collector build() {
+            return collector;
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private Collector() {
+    }
+
+    protected double[] getWeights() {
+        return weights;
+    }
+
+    protected void setControl(OnOffCircuitControl control) {
+        this.control = control;
+    }
+
+    private boolean isComplete(long count) {
+        return count > 0 && count >= control.getMinSampleSize();
+    }
+
+    private static long failures(Stats s) {
+        return s != null ? s.failureCount() : 0;
+    }
+
+    private static long count(Stats s) {
+        return s != null ? s.count() : 0;
+    }
+
+    private int slot(long key) {
+        return (int) Math.floorMod(key, (long) weights.length);
+    }
+
+    /**
+     * Scores the closed buckets once per roll-over: the full window ending at the previous bucket, and the window
+     * minus its newest slot so the current bucket can be added in constant time while it fills up. Each bucket adds
+     * the calls registered locally in {@code ring} and the ones rolled up from children or merged from other nodes in
+     * {@code merged}, which is null until there are any.
+     * Sliding by one bucket only reads the bucket that just closed, plus the one closed before it to pick up calls
+     * merged late, and replaces the expiring slot in the running sums. Since every slot changes weight on a slide,
+     * the weighted score is still a dot product over the cached rates. The whole window is read again on the first
+     * run, after skipping buckets, once merged stats appear and every weights.length slides, which bounds any drift
+     * from calls added to older buckets.
+     */
+    private void rollOver(StatsRing ring, StatsRing merged, long now) {
+        int n = weights.length;
+        long last = scoredKey;
+
+        if (last == Long.MIN_VALUE || now - last != 1 || ++slides >= n || merged != scannedMerged) {
+            rescan(ring, merged, now);
+        } else {
+            if (n > 1) capture(ring, merged, last - 1);
+
+            capture(ring, merged, last);
+            if (latency != null) slideLatency(ring, merged, last, last - n);
+        }
+
+        closedScore = 0;
+        partialScore = 0;
+        for (int i = 0; i < n; i++) {
+            double rate = rates[slot(now - n + i)];
+
+            closedScore += weights[i] * rate;
+            if (i > 0) partialScore += weights[i - 1] * rate;
+        }
+
+        long oldest = counts[slot(now - n)];
+        closedSamples = windowSamples;
+        partialSamples = windowSamples - oldest;
+        closedComplete = incomplete == 0;
+        partialComplete = incomplete - (isComplete(oldest) ? 0 : 1) == 0;
+
+        slow = closedComplete && latency != null && isSlow();
+        scoredKey = now;
+    }
+
+    private void rescan(StatsRing ring, StatsRing merged, long now) {
+        int n = weights.length;
+
+        if (rates == null || rates.length != n) {
+            rates = new double[n];
+            counts = new long[n];
+        }
+
+        Arrays.fill(rates, 0);
+        Arrays.fill(counts, 0);
+        windowSamples = 0;
+        incomplete = n;
+        slides = 0;
+        scannedMerged = merged;
+
+        for (long key = now - n; key < now; key++)
+            capture(ring, merged, key);
+
+        if (!ring.tracksLatency()) {
+            latency = null;
+            return;
+        }
+
+        if (latency == null) latency = new long[LatencyHistogram.BUCKETS];
+
+        Arrays.fill(latency, 0);
+
+        for (long key = now - n; key < now; key++) {
+            LatencyHistogram h = ring.histogram(key);
+            if (h != null) h.addTo(latency);
+
+            LatencyHistogram m = merged != null ? merged.histogram(key) : null;
+            if (m != null) m.addTo(latency);
+        }
+    }
+
+    /**
+     * Reads the bucket at {@code key} into its slot, replacing whatever the slot held in the running sums.
+     */
+    private void capture(StatsRing ring, StatsRing merged, long key) {
+        int i = slot(key);
+
+        Stats s = ring.get(key);
+        Stats m = merged != null ? merged.get(key) : null;
+
+        long count = count(s) + count(m);
+        boolean complete = isComplete(count);
+
+        windowSamples += count - counts[i];
+        incomplete += (complete ? 0 : 1) - (isComplete(counts[i]) ? 0 : 1);
+
+        counts[i] = count;
+        rates[i] = complete ? 1 - (failures(s) + failures(m)) * 1.0 / count : 0;
+    }
+
+    private void slideLatency(StatsRing ring, StatsRing merged, long closed, long expired) {
+        LatencyHistogram h = ring.histogram(closed);
+        if (h != null) h.addTo(latency);
+
+        LatencyHistogram m = merged != null ? merged.histogram(closed) : null;
+        if (m != null) m.addTo(latency);
+
+        h = ring.histogram(expired);
+        if (h != null) h.subtractFrom(latency);
+
+        m = merged != null ? merged.histogram(expired) : null;
+        if (m != null) m.subtractFrom(latency);
+    }
+
+    /**
+     * Checks the latency of the closed buckets in the window against the control limits.
+     */
+    private boolean isSlow() {
+        long total = LatencyHistogram.countAtLeast(latency, 0);
+
+        if (total == 0) return false;
+
+        if (control.getSlowCallThreshold() > 0) {
+            long slowCalls = LatencyHistogram.countAtLeast(latency, control.getSlowCallThreshold() * 1000);
+            if (slowCalls * 1.0 / total > control.getMaxSlowCallRate()) return true;
+        }
+
+        if (control.getLatencyPercentile() > 0) {
+            long value = LatencyHistogram.percentile(latency, control.getLatencyPercentile());
+            if (value > control.getMaxLatency() * 1000) return true;
+        }
+
+        return false;
+    }
+
+    protected void invalidate() {
+        scoredKey = Long.MIN_VALUE;
+        score = Double.NaN;
+    }
+
+    protected double getScore() {
+        return score;
+    }
+
+    public void run() {
+        StatsRing ring = control.getStats();
+        StatsRing merged = control.getMergedStats();
+        long now = control.getTimestamp();
+
+        if (now != scoredKey) control.rollUpChildren(now - 1);
+
+        BatchedMetrics metrics = control.getMetrics();
+        metrics.flush(ring, now);
+
+        if (now != scoredKey) rollOver(ring, merged, now);
+
+        Stats current = ring.get(now);
+        Stats mergedCurrent = merged != null ? merged.get(now) : null;
+        long currentCount = count(current) + count(mergedCurrent);
+
+        boolean complete;
+        double score;
+        long samples;
+
+        if (isComplete(currentCount)) {
+            double rate = 1 - (failures(current) + failures(mergedCurrent)) * 1.0 / currentCount;
+
+            complete = partialComplete;
+            score = partialScore + weights[weights.length - 1] * rate;
+            samples = partialSamples + currentCount;
+        } else {
+            complete = closedComplete;
+            score = closedScore;
+            samples = closedSamples;
+        }
+
+        this.score = complete ? score : Double.NaN;
+
+        if (complete) {
+            if (score > control.getMinScore() && !slow) {
+                metrics.getMetrics().close();
+                control.close();
+            } else {
+                metrics.getMetrics().open();
+                control.open();
+            }
+
+        } else {
+            metrics.getMetrics().insufficientData();
+        }
+
+        control.getEvents().evaluation(this.score, samples, complete, control.shouldOpen());
+
+    }
+
+}
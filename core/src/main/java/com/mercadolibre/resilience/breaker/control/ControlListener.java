@@ -0,0 +1,11 @@
+package com.mercadolibre.resilience.breaker.control;
+
+public interface ControlListener {
+
+    /**
+     * Called after the control verdict may have changed; read {@link CircuitControl#shouldOpen()} and
+     * {@link CircuitControl#shouldClose()} for the current one.
+     */
+    void onVerdictChange(CircuitControl control);
+
+}
@@ -0,0 +1,189 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Control that keeps the outcome of the last {@code windowSize} calls in a bit ring, one bit per call set on failure,
+ * along with a running failure count. The verdict is updated on every register, without any background thread.
+ */
+public class CountWindowCircuitControl implements ObservableCircuitControl, ResettableCircuitControl, ScoredCircuitControl {
+
+    public static final double DEFAULT_MIN_SCORE = 0.6;
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MIN_SAMPLE_SIZE = 20;
+
+    private double minScore = DEFAULT_MIN_SCORE;
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private int minSampleSize = DEFAULT_MIN_SAMPLE_SIZE;
+
+    private AtomicLongArray bits;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private volatile boolean closed = true;
+    private final List<ControlListener> listeners = new CopyOnWriteArrayList<>();
+
+    public static final class Builder {
+        private final CountWindowCircuitControl control;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.control = new CountWindowCircuitControl();
+        }
+
+        public Builder withMinScore(double minScore) {
+            if (minScore < 0) throw new IllegalArgumentException("minScore must be non negative");
+
+            control.minScore = minScore;
+            return this;
+        }
+
+        public Builder withWindowSize(int windowSize) {
+            if (windowSize <= 0) throw new IllegalArgumentException("windowSize must be positive");
+
+            control.windowSize = windowSize;
+            return this;
+        }
+
+        public Builder withMinSampleSize(int minSampleSize) {
+            if (minSampleSize <= 0) throw new IllegalArgumentException("minSampleSize must be positive");
+
+            control.minSampleSize = minSampleSize;
+            return this;
+        }
+
+        public CountWindowCircuitControl build() {
+            if (!built.compareAndSet(false,true)) return control;
+
+            if (control.minSampleSize > control.windowSize)
+                throw new IllegalArgumentException("minSampleSize must not exceed windowSize");
+
+            control.bits = new AtomicLongArray((control.windowSize + 63) >>> 6);
+
+            return control;
+        }
+    }
+
+    private CountWindowCircuitControl() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private void registerData(boolean result) {
+        long call = calls.getAndIncrement();
+        int slot = (int) (call % windowSize);
+
+        int word = slot >>> 6;
+        long mask = 1L << (slot & 63);
+
+        long current;
+        long next;
+        do {
+            current = bits.get(word);
+            next = result ? current & ~mask : current | mask;
+        } while (current != next && !bits.compareAndSet(word, current, next));
+
+        boolean wasFailure = (current & mask) != 0;
+
+        int fails;
+        if (wasFailure == result)
+            fails = result ? failures.decrementAndGet() : failures.incrementAndGet();
+        else
+            fails = failures.get();
+
+        evaluate(Math.min(call + 1, windowSize), fails);
+    }
+
+    private void evaluate(long samples, int fails) {
+        if (samples < minSampleSize) return;
+
+        setClosed(1 - fails * 1.0 / samples > minScore);
+    }
+
+    private void setClosed(boolean closed) {
+        if (this.closed == closed) return;
+
+        this.closed = closed;
+
+        for (ControlListener listener : listeners)
+            listener.onVerdictChange(this);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, T data) {
+        boolean result = action.isValid(data, null);
+        registerData(result);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, Exception e) {
+        boolean result = action.isValid(null, e);
+        registerData(result);
+    }
+
+    @Override
+    public boolean shouldOpen() {
+        return !closed;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closed;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < bits.length(); i++)
+            bits.set(i, 0);
+
+        calls.set(0);
+        failures.set(0);
+        setClosed(true);
+    }
+
+    @Override
+    public void addListener(ControlListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener should not be null");
+
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ControlListener listener) {
+        listeners.remove(listener);
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getMinSampleSize() {
+        return minSampleSize;
+    }
+
+    public int failureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public double getScore() {
+        long samples = Math.min(calls.get(), windowSize);
+        if (samples < minSampleSize) return Double.NaN;
+
+        return 1 - failures.get() * 1.0 / samples;
+    }
+
+}
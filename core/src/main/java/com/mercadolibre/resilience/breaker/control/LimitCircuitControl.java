@@ -0,0 +1,11 @@
+package com.mercadolibre.resilience.breaker.control;
+
+/**
+ * Control that bounds the number of calls in flight. {@link com.mercadolibre.resilience.breaker.CircuitBreaker}
+ * rejects calls over the current limit, which may change as calls are registered.
+ */
+public interface LimitCircuitControl extends CircuitControl {
+
+    int getLimit();
+
+}
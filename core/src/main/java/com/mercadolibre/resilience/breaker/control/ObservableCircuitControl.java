@@ -0,0 +1,12 @@
+package com.mercadolibre.resilience.breaker.control;
+
+/**
+ * Control that notifies listeners as soon as its verdict changes, instead of waiting to be polled.
+ */
+public interface ObservableCircuitControl extends CircuitControl {
+
+    void addListener(ControlListener listener);
+
+    void removeListener(ControlListener listener);
+
+}
@@ -0,0 +1,601 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.clock.Clock;
+import com.mercadolibre.resilience.breaker.clock.SystemClock;
+import com.mercadolibre.resilience.breaker.metrics.BreakerEvents;
+import com.mercadolibre.resilience.breaker.metrics.BreakerMetrics;
+import com.mercadolibre.resilience.breaker.metrics.DefaultBreakerMetrics;
+import com.mercadolibre.resilience.breaker.metrics.NoOpBreakerEvents;
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import com.mercadolibre.resilience.breaker.stats.LatencyHistogram;
+import com.mercadolibre.resilience.breaker.stats.SimpleStats;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsFactory;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+public class OnOffCircuitControl implements TimedCircuitControl, ObservableCircuitControl, ResettableCircuitControl, ScoredCircuitControl {
+
+    public static final double DEFAULT_MIN_SCORE = 0.6;
+    public static final long DEFAULT_MIN_SAMPLE_SIZE = 50;
+    public static final long DEFAULT_BUCKET_WIDTH = 1000;
+    public static final long DEFAULT_COLLECTOR_THREAD_DELAY = 10*1000;
+    public static final long DEFAULT_COLLECTOR_THREAD_INTERVAL = 1*1000;
+    @Deprecated
+    public static final long DEFAULT_CLEANER_THREAD_DELAY = 20*1000;
+    @Deprecated
+    public static final long DEFAULT_CLEANER_THREAD_INTERVAL = 20*1000;
+
+    protected static final int RING_GAP = 2;
+
+    private double minScore = DEFAULT_MIN_SCORE;
+    private long minSampleSize = DEFAULT_MIN_SAMPLE_SIZE;
+    private long bucketWidth = DEFAULT_BUCKET_WIDTH;
+    private long slowCallThreshold;
+    private double maxSlowCallRate;
+    private double latencyPercentile;
+    private long maxLatency;
+
+    private StatsRing stats;
+    private volatile StatsRing merged;
+    private Clock clock = SystemClock.INSTANCE;
+    private ScheduledExecutorService pool = Schedulers.shared();
+
+    private volatile boolean closed = true;
+    private final List<ControlListener> listeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledFuture<?> collectorFuture;
+
+    private Collector collector;
+    private BatchedMetrics metrics;
+    private BreakerEvents events = NoOpBreakerEvents.INSTANCE;
+
+    private OnOffCircuitControl parent;
+    private final List<OnOffCircuitControl> children = new CopyOnWriteArrayList<>();
+    private final AtomicLong rolledUpKey = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong resets = new AtomicLong();
+
+    public static final class Builder {
+        private final OnOffCircuitControl control;
+        private boolean startWorkers = true;
+        private long collectorThreadDelay = DEFAULT_COLLECTOR_THREAD_DELAY;
+        private Long collectorThreadInterval;
+        private StatsFactory statsFactory = SimpleStats.FACTORY;
+        private BreakerMetrics metrics;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.control = new OnOffCircuitControl();
+        }
+
+        public Builder withMinScore(double minScore) {
+            if (minScore < 0) throw new IllegalArgumentException("minScore must be non negative");
+
+            control.minScore = minScore;
+            return this;
+        }
+
+        /**
+         * Minimum number of calls a bucket must hold to take part in a decision.
+         */
+        public Builder withMinSampleSize(long minSampleSize) {
+            if (minSampleSize < 0) throw new IllegalArgumentException("minSampleSize must be non negative");
+
+            control.minSampleSize = minSampleSize;
+            return this;
+        }
+
+        /**
+         * Width in milliseconds of each stats bucket. Collector weights and minSampleSize are expressed in buckets,
+         * and unless set explicitly the collector runs once per bucket.
+         */
+        public Builder withBucketWidth(long bucketWidth) {
+            if (bucketWidth <= 0) throw new IllegalArgumentException("bucketWidth must be positive");
+
+            control.bucketWidth = bucketWidth;
+            return this;
+        }
+
+        /**
+         * Opens when more than {@code maxSlowCallRate} (0 to 1) of the calls in the window took at least
+         * {@code slowCallThreshold} milliseconds.
+         */
+        public Builder withSlowCallThreshold(long slowCallThreshold, double maxSlowCallRate) {
+            if (slowCallThreshold <= 0) throw new IllegalArgumentException("slowCallThreshold must be positive");
+            if (maxSlowCallRate < 0 || maxSlowCallRate > 1) throw new IllegalArgumentException("maxSlowCallRate must be between 0 and 1");
+
+            control.slowCallThreshold = slowCallThreshold;
+            control.maxSlowCallRate = maxSlowCallRate;
+            return this;
+        }
+
+        /**
+         * Opens when the given latency percentile (0 to 100) of the calls in the window exceeds {@code maxLatency}
+         * milliseconds.
+         */
+        public Builder withLatencyPercentile(double latencyPercentile, long maxLatency) {
+            if (latencyPercentile <= 0 || latencyPercentile > 100) throw new IllegalArgumentException("latencyPercentile must be between 0 and 100");
+            if (maxLatency <= 0) throw new IllegalArgumentException("maxLatency must be positive");
+
+            control.latencyPercentile = latencyPercentile;
+            control.maxLatency = maxLatency;
+            return this;
+        }
+
+        public Builder startWorkers(boolean startWorkers) {
+            this.startWorkers = startWorkers;
+            return this;
+        }
+
+        public Builder withCollector(Collector collector) {
+            if (collector == null) throw new IllegalArgumentException("Collector should not be null");
+
+            control.collector = collector;
+            return this;
+        }
+
+        /**
+         * Scheduler running the collector. Defaults to the JVM-wide shared scheduler.
+         */
+        public Builder withScheduler(ScheduledExecutorService scheduler) {
+            if (scheduler == null) throw new IllegalArgumentException("Scheduler should not be null");
+
+            control.pool = scheduler;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            if (clock == null) throw new IllegalArgumentException("Clock should not be null");
+
+            control.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sink for breaker metrics, flushed once per collector run. Defaults to {@link DefaultBreakerMetrics#create()}.
+         */
+        public Builder withMetrics(BreakerMetrics metrics) {
+            if (metrics == null) throw new IllegalArgumentException("Metrics should not be null");
+
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sink for an event on every collector run, carrying the score, the number of calls scored and the verdict.
+         */
+        public Builder withEvents(BreakerEvents events) {
+            if (events == null) throw new IllegalArgumentException("Events should not be null");
+
+            control.events = events;
+            return this;
+        }
+
+        /**
+         * Adds the counters of every closed bucket of this control into {@code parent}, which must be built and use
+         * the same bucket width. The parent pulls them when its collector rolls over to a new bucket and scores
+         * them with its own weights, so registering a call costs nothing extra. Rolled-up counts are kept apart
+         * from the parent's own calls and are not reported again by its metrics.
+         */
+        public Builder withParent(OnOffCircuitControl parent) {
+            if (parent == null) throw new IllegalArgumentException("Parent should not be null");
+            if (parent.stats == null) throw new IllegalArgumentException("Parent should be built");
+
+            control.parent = parent;
+            return this;
+        }
+
+        public Builder withStatsFactory(StatsFactory statsFactory) {
+            if (statsFactory == null) throw new IllegalArgumentException("Stats factory should not be null");
+
+            this.statsFactory = statsFactory;
+            return this;
+        }
+
+        public Builder withCollectorThreadDelay(long collectorThreadDelay) {
+            if (collectorThreadDelay < 0) throw new IllegalArgumentException("collectorThreadDelay must be non negative");
+
+            this.collectorThreadDelay = collectorThreadDelay;
+            return this;
+        }
+
+        public Builder withCollectorThreadInterval(long collectorThreadInterval) {
+            if (collectorThreadInterval <= 0) throw new IllegalArgumentException("collectorThreadInterval must be positive");
+
+            this.collectorThreadInterval = collectorThreadInterval;
+            return this;
+        }
+
+        /**
+         * @deprecated stale buckets are now replaced lazily and there is no cleaner thread; this setting is ignored.
+         */
+        @Deprecated
+        public Builder withCleanerThreadDelay(long cleanerThreadDelay) {
+            if (cleanerThreadDelay < 0) throw new IllegalArgumentException("cleanerThreadDelay must be non negative");
+
+            return this;
+        }
+
+        /**
+         * @deprecated stale buckets are now replaced lazily and there is no cleaner thread; this setting is ignored.
+         */
+        @Deprecated
+        public Builder withCleanerThreadInterval(long cleanerThreadInterval) {
+            if (cleanerThreadInterval <= 0) throw new IllegalArgumentException("cleanerThreadInterval must be positive");
+
+            return this;
+        }
+
+        public OnOffCircuitControl build() {
+            if (!built.compareAndSet(false,true)) return control;
+
+            if (control.collector == null) control.collector = Collector.builder().build();
+
+            if (metrics == null) metrics = DefaultBreakerMetrics.create();
+
+            control.metrics = new BatchedMetrics(metrics);
+            control.collector.setControl(control);
+            control.stats = new StatsRing(control.collector.getWeights().length + RING_GAP, statsFactory, control.isLatencyAware());
+
+            if (control.parent != null) {
+                if (control.parent.bucketWidth != control.bucketWidth)
+                    throw new IllegalArgumentException("Parent should have the same bucket width");
+
+                control.parent.merged();
+                control.parent.children.add(control);
+            }
+
+            if (startWorkers) {
+                long interval = collectorThreadInterval != null ? collectorThreadInterval : control.bucketWidth;
+                control.scheduleWorkers(collectorThreadDelay, interval);
+            }
+
+            return control;
+        }
+    }
+
+    private OnOffCircuitControl() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private void scheduleWorkers(long collectorDelay, long collectorInterval) {
+        collectorFuture = pool.scheduleAtFixedRate(collector, collectorDelay, collectorInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public void shutdown() {
+        if (collectorFuture != null) collectorFuture.cancel(true);
+        if (parent != null) parent.children.remove(this);
+    }
+
+    protected long getTimestamp() {
+        return clock.currentTimeMillis() / bucketWidth;
+    }
+
+    private Stats registerData(long key, boolean result) {
+        Stats bucket = stats.acquire(key);
+        if (bucket == null) return null;
+
+        if (result)
+            bucket.addSuccess();
+        else
+            bucket.addFailure();
+
+        return bucket;
+    }
+
+    private void registerData(boolean result, long nanos) {
+        long key = getTimestamp();
+        if (registerData(key, result) == null) return;
+
+        LatencyHistogram histogram = stats.histogram(key);
+        if (histogram != null) histogram.record(nanos);
+    }
+
+    /**
+     * Rolls the closed buckets of every child up to {@code key} into this control.
+     */
+    protected void rollUpChildren(long key) {
+        for (OnOffCircuitControl child : children)
+            child.rollUp(key);
+    }
+
+    /**
+     * Adds the buckets up to {@code key} not rolled up yet, including the ones this control rolled up from its own
+     * children, into the parent. Calls registered into a bucket after it has been rolled up are not carried over.
+     */
+    private void rollUp(long key) {
+        long last;
+        do {
+            last = rolledUpKey.get();
+            if (last >= key) return;
+        } while (!rolledUpKey.compareAndSet(last, key));
+
+        StatsRing merged = this.merged;
+
+        for (long k = Math.max(last + 1, key - stats.capacity() + 1); k <= key; k++) {
+            rollUp(stats, k);
+            if (merged != null) rollUp(merged, k);
+        }
+    }
+
+    private void rollUp(StatsRing ring, long key) {
+        Stats s = ring.get(key);
+        if (s == null || s.count() == 0) return;
+
+        StatsRing targetRing = parent.merged();
+
+        Stats target = targetRing.acquire(key);
+        if (target == null) return;
+
+        target.add(s.successCount(), s.failureCount());
+
+        LatencyHistogram h = ring.histogram(key);
+        LatencyHistogram targetHistogram = targetRing.histogram(key);
+        if (h != null && targetHistogram != null) targetHistogram.add(h);
+    }
+
+    /**
+     * Adds calls registered elsewhere, such as on other nodes, into the bucket starting at {@code bucket.getStart()}.
+     * Like rolled-up calls, they are kept apart from local ones: the collector scores them but the metrics do not
+     * report them.
+     * Returns false if the bucket is ahead of the current one or older than the collector window. Calls merged into
+     * the newest closed bucket are scored on the next roll-over, and into older ones once the collector reads its
+     * whole window again, at most weights.length roll-overs later.
+     */
+    public boolean merge(BucketSnapshot bucket) {
+        if (bucket == null) throw new IllegalArgumentException("Bucket should not be null");
+
+        if (!isInWindow(bucket.getStart())) return false;
+
+        Stats target = merged().acquire(bucket.getStart() / bucketWidth);
+        if (target == null) return false;
+
+        target.add(bucket.getSuccesses(), bucket.getFailures());
+
+        return true;
+    }
+
+    /**
+     * Returns whether the bucket starting at {@code start} is the current one or a closed one in the collector window.
+     */
+    public boolean isInWindow(long start) {
+        long key = start / bucketWidth;
+        long now = getTimestamp();
+
+        return key <= now && key >= now - getWindowSize();
+    }
+
+    @Override
+    public <T> void register(Action<T> action, T data) {
+        boolean result = action.isValid(data, null);
+        registerData(getTimestamp(), result);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, Exception e) {
+        boolean result = action.isValid(null, e);
+        registerData(getTimestamp(), result);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, T data, long nanos) {
+        boolean result = action.isValid(data, null);
+        registerData(result, nanos);
+    }
+
+    @Override
+    public <T> void register(Action<T> action, Exception e, long nanos) {
+        boolean result = action.isValid(null, e);
+        registerData(result, nanos);
+    }
+
+    @Override
+    public boolean shouldOpen() {
+        return !closed;
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closed;
+    }
+
+    @Override
+    public void addListener(ControlListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener should not be null");
+
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ControlListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void setClosed(boolean closed) {
+        if (this.closed == closed) return;
+
+        this.closed = closed;
+
+        for (ControlListener listener : listeners)
+            listener.onVerdictChange(this);
+    }
+
+    @Override
+    public void reset() {
+        stats.clear();
+        StatsRing merged = this.merged;
+        if (merged != null) merged.clear();
+        resets.incrementAndGet();
+        collector.invalidate();
+        setClosed(true);
+    }
+
+    protected void open() {
+        setClosed(false);
+    }
+
+    protected void close() {
+        setClosed(true);
+    }
+
+    protected Collector getCollector() {
+        return collector;
+    }
+
+    protected BatchedMetrics getMetrics() {
+        return metrics;
+    }
+
+    protected BreakerEvents getEvents() {
+        return events;
+    }
+
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public long getMinSampleSize() {
+        return minSampleSize;
+    }
+
+    public long getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public long getSlowCallThreshold() {
+        return slowCallThreshold;
+    }
+
+    public double getMaxSlowCallRate() {
+        return maxSlowCallRate;
+    }
+
+    public double getLatencyPercentile() {
+        return latencyPercentile;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * Number of closed buckets the collector scores, one per collector weight.
+     */
+    public int getWindowSize() {
+        return collector.getWeights().length;
+    }
+
+    /**
+     * Reads the counters of the buckets in the collector window plus the current one, oldest first, without
+     * blocking writers. Each bucket holds every call the collector scores, including the ones rolled up from children
+     * or merged from other nodes. Buckets without calls are left out, and so are the counters of a slot reused while
+     * it is read.
+     */
+    public List<BucketSnapshot> getBuckets() {
+        return getBuckets(true);
+    }
+
+    /**
+     * Like {@link #getBuckets()}, but only with the calls registered on this control.
+     */
+    public List<BucketSnapshot> getLocalBuckets() {
+        return getBuckets(false);
+    }
+
+    private List<BucketSnapshot> getBuckets(boolean withMerged) {
+        long now = getTimestamp();
+        int window = getWindowSize();
+
+        List<BucketSnapshot> buckets = new ArrayList<>(window + 1);
+        long[] counts = new long[2];
+        StatsRing merged = withMerged ? this.merged : null;
+
+        for (long key = now - window; key <= now; key++) {
+            counts[0] = 0;
+            counts[1] = 0;
+
+            read(stats, key, counts);
+            read(merged, key, counts);
+
+            if (counts[0] + counts[1] > 0)
+                buckets.add(new BucketSnapshot(key * bucketWidth, counts[0], counts[1]));
+        }
+
+        return buckets;
+    }
+
+    private static void read(StatsRing ring, long key, long[] counts) {
+        if (ring == null) return;
+
+        Stats s = ring.get(key);
+        if (s == null) return;
+
+        long successes = s.successCount();
+        long failures = s.failureCount();
+
+        if (ring.get(key) != s) return;
+
+        counts[0] += successes;
+        counts[1] += failures;
+    }
+
+    @Override
+    public double getScore() {
+        return collector.getScore();
+    }
+
+    @Override
+    public boolean isLatencyAware() {
+        return slowCallThreshold > 0 || latencyPercentile > 0;
+    }
+
+    /**
+     * Returns the ring for rolled-up and merged counts, creating it on first use. These counts are added once per
+     * bucket rather than per call, so the ring uses {@link SimpleStats} whatever the control's stats factory.
+     */
+    private StatsRing merged() {
+        StatsRing ring = merged;
+        if (ring != null) return ring;
+
+        synchronized (this) {
+            if (merged == null) merged = new StatsRing(stats.capacity(), SimpleStats.FACTORY, isLatencyAware());
+
+            return merged;
+        }
+    }
+
+    protected StatsRing getStats() {
+        return stats;
+    }
+
+    /**
+     * Counts rolled up from children or merged from other nodes, scored along with {@link #getStats()} but left out
+     * of the metrics. Null until a child is attached or a bucket is merged.
+     */
+    protected StatsRing getMergedStats() {
+        return merged;
+    }
+
+    /**
+     * Number of times the control has been reset, so that state derived from its buckets, such as what a replicator
+     * has already sent, can be dropped along with them.
+     */
+    public long getResets() {
+        return resets.get();
+    }
+
+    public OnOffCircuitControl getParent() {
+        return parent;
+    }
+}
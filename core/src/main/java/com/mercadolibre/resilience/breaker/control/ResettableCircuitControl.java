@@ -0,0 +1,11 @@
+package com.mercadolibre.resilience.breaker.control;
+
+/**
+ * Control that can forget the outcomes it has collected. The breaker resets it when it closes on the result of
+ * its half open trial calls, so the verdict from before the outage does not re-open it.
+ */
+public interface ResettableCircuitControl extends CircuitControl {
+
+    void reset();
+
+}
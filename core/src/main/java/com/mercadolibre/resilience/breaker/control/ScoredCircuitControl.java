@@ -0,0 +1,13 @@
+package com.mercadolibre.resilience.breaker.control;
+
+/**
+ * Control exposing the success score behind its current verdict.
+ */
+public interface ScoredCircuitControl extends CircuitControl {
+
+    /**
+     * Returns the last computed score, from 0 to 1, or NaN if there is not enough data yet.
+     */
+    double getScore();
+
+}
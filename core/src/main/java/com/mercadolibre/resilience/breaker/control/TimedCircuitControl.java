@@ -0,0 +1,17 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+
+/**
+ * Control that also takes the duration of each call into account. {@link com.mercadolibre.resilience.breaker.CircuitBreaker}
+ * only times actions when its control implements this interface and reports itself as latency aware.
+ */
+public interface TimedCircuitControl extends CircuitControl {
+
+    boolean isLatencyAware();
+
+    <T> void register(Action<T> action, T data, long nanos);
+
+    <T> void register(Action<T> action, Exception e, long nanos);
+
+}
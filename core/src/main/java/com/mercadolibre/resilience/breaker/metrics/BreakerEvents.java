@@ -0,0 +1,29 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+import com.mercadolibre.resilience.breaker.State;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Sink for fine grained breaker events, such as JDK Flight Recorder events. Unlike {@link BreakerMetrics} it is
+ * called from the call path on every rejection, so implementations must return quickly when their event is disabled.
+ */
+public interface BreakerEvents {
+
+    /**
+     * The breaker moved from one state to another. The score is NaN if the control does not score calls.
+     */
+    void transition(State from, State to, double score);
+
+    /**
+     * The collector scored the window. The score is NaN and {@code complete} false when there was not enough data
+     * to decide, in which case the verdict was left as it was.
+     */
+    void evaluation(double score, long samples, boolean complete, boolean open);
+
+    /**
+     * The breaker rejected a call. The rejection is a shared instance and must not be modified.
+     */
+    void rejection(RejectedExecutionException rejection);
+
+}
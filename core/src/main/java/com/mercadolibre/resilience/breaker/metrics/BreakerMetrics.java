@@ -0,0 +1,18 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+/**
+ * Sink for breaker metrics. Success and failure counts arrive as deltas once per collector run, never per call.
+ */
+public interface BreakerMetrics {
+
+    void success(long count);
+
+    void failure(long count);
+
+    void open();
+
+    void close();
+
+    void insufficientData();
+
+}
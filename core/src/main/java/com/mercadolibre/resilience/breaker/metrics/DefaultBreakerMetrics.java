@@ -0,0 +1,47 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Picks the metrics sink of controls built without one: the java-metrics adapter when the resilience-java-metrics
+ * module is on the classpath, and a no-op sink otherwise. The adapter is loaded by name so the core library does not
+ * depend on java-metrics. Falling back to the no-op sink is logged once, so an upgrade that leaves the module out
+ * does not drop metrics silently.
+ */
+public final class DefaultBreakerMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultBreakerMetrics.class);
+
+    static final String JAVA_METRICS_CLASS = "com.mercadolibre.resilience.breaker.metrics.JavaMetricsBreakerMetrics";
+
+    private static final AtomicBoolean WARNED = new AtomicBoolean(false);
+
+    private DefaultBreakerMetrics() {
+    }
+
+    public static BreakerMetrics create() {
+        return create(JAVA_METRICS_CLASS);
+    }
+
+    static BreakerMetrics create(String className) {
+        try {
+            Class<?> type = Class.forName(className, true, DefaultBreakerMetrics.class.getClassLoader());
+            return (BreakerMetrics) type.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            if (WARNED.compareAndSet(false, true))
+                LOGGER.warn("{} is not on the classpath, breaker metrics will not be reported. Add the "
+                        + "resilience-java-metrics module or give controls a sink with withMetrics", className);
+
+            return NoOpBreakerMetrics.INSTANCE;
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            if (WARNED.compareAndSet(false, true))
+                LOGGER.error("Could not load {}, breaker metrics will not be reported", className, e);
+
+            return NoOpBreakerMetrics.INSTANCE;
+        }
+    }
+
+}
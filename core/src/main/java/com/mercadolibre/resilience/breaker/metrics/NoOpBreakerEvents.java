@@ -0,0 +1,26 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+import com.mercadolibre.resilience.breaker.State;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public final class NoOpBreakerEvents implements BreakerEvents {
+
+    public static final NoOpBreakerEvents INSTANCE = new NoOpBreakerEvents();
+
+    private NoOpBreakerEvents() {
+    }
+
+    @Override
+    public void transition(State from, State to, double score) {
+    }
+
+    @Override
+    public void evaluation(double score, long samples, boolean complete, boolean open) {
+    }
+
+    @Override
+    public void rejection(RejectedExecutionException rejection) {
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+public final class NoOpBreakerMetrics implements BreakerMetrics {
+
+    public static final NoOpBreakerMetrics INSTANCE = new NoOpBreakerMetrics();
+
+    private NoOpBreakerMetrics() {
+    }
+
+    @Override
+    public void success(long count) {
+    }
+
+    @Override
+    public void failure(long count) {
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void insufficientData() {
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bucket deltas sent by one node for one replicated control. Encoded as a version byte, the control and node names,
+ * the sender's bucket width, and the start, successes and failures of each bucket.
+ */
+final class DeltaMessage {
+
+    static final byte VERSION = 2;
+
+    /**
+     * Most calls a single delta may carry. Deltas cover one bucket for one send interval, so anything larger comes
+     * from a corrupt or forged message.
+     */
+    static final long MAX_COUNT = Integer.MAX_VALUE;
+
+    private static final int DELTA_SIZE = 24;
+    private static final int MAX_DELTAS = 0xFFFF;
+
+    private final String name;
+    private final String node;
+    private final long width;
+    private final List<BucketSnapshot> deltas;
+
+    DeltaMessage(String name, String node, long width, List<BucketSnapshot> deltas) {
+        this.name = name;
+        this.node = node;
+        this.width = width;
+        this.deltas = deltas;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getNode() {
+        return node;
+    }
+
+    long getWidth() {
+        return width;
+    }
+
+    List<BucketSnapshot> getDeltas() {
+        return deltas;
+    }
+
+    /**
+     * Returns how many deltas fit in a message of at most {@code maxSize} bytes sent by the given node, which is not
+     * positive if not even an empty message fits.
+     */
+    static int maxDeltas(String name, String node, int maxSize) {
+        int header = new DeltaMessage(name, node, 0, Collections.<BucketSnapshot>emptyList()).encode().length;
+
+        return (int) Math.min(((long) maxSize - header) / DELTA_SIZE, MAX_DELTAS);
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + deltas.size() * DELTA_SIZE);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(name);
+            out.writeUTF(node);
+            out.writeLong(width);
+            out.writeShort(deltas.size());
+
+            for (BucketSnapshot delta : deltas) {
+                out.writeLong(delta.getStart());
+                out.writeLong(delta.getSuccesses());
+                out.writeLong(delta.getFailures());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if the message is truncated, was encoded by another version or holds values no node sends,
+     * such as a non positive bucket width, a negative bucket start or a negative or implausible count
+     */
+    static DeltaMessage decode(byte[] message) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+
+        byte version = in.readByte();
+        if (version != VERSION) throw new IOException("Unknown replication message version " + version);
+
+        String name = in.readUTF();
+        String node = in.readUTF();
+
+        long width = in.readLong();
+        if (width <= 0) throw new IOException("Invalid bucket width " + width);
+
+        int size = in.readUnsignedShort();
+
+        List<BucketSnapshot> deltas = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long start = in.readLong();
+            long successes = in.readLong();
+            long failures = in.readLong();
+
+            if (start < 0) throw new IOException("Invalid bucket start " + start);
+            if (!isPlausible(successes) || !isPlausible(failures))
+                throw new IOException("Invalid bucket counts " + successes + "/" + failures);
+
+            deltas.add(new BucketSnapshot(start, successes, failures));
+        }
+
+        if (in.available() > 0) throw new IOException("Unexpected trailing bytes in replication message");
+
+        return new DeltaMessage(name, node, width, deltas);
+    }
+
+    private static boolean isPlausible(long count) {
+        return count >= 0 && count <= MAX_COUNT;
+    }
+
+}
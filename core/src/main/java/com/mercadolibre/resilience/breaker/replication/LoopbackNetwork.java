@@ -0,0 +1,66 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process network for running several replicating nodes on a single host, mostly for tests. Each call to
+ * {@link #join()} returns the transport of a new node, and messages are delivered synchronously, on the sending
+ * thread, to the handlers of every other node.
+ */
+public class LoopbackNetwork {
+
+    private final List<Node> nodes = new CopyOnWriteArrayList<>();
+
+    public Transport join() {
+        Node node = new Node();
+        nodes.add(node);
+
+        return node;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    private final class Node implements Transport {
+        private final List<MessageHandler> handlers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean send(byte[] message) {
+            if (!nodes.contains(this)) return false;
+
+            for (Node node : nodes) {
+                if (node == this) continue;
+
+                for (MessageHandler handler : node.handlers)
+                    handler.onMessage(message.clone());
+            }
+
+            return true;
+        }
+
+        @Override
+        public int getMaxMessageSize() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        public void addHandler(MessageHandler handler) {
+            if (handler == null) throw new IllegalArgumentException("Handler should not be null");
+
+            handlers.add(handler);
+        }
+
+        @Override
+        public void removeHandler(MessageHandler handler) {
+            handlers.remove(handler);
+        }
+
+        @Override
+        public void close() {
+            nodes.remove(this);
+        }
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+public interface MessageHandler {
+
+    void onMessage(byte[] message);
+
+}
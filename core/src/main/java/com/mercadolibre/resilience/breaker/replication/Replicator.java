@@ -0,0 +1,255 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import com.mercadolibre.resilience.breaker.control.OnOffCircuitControl;
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shares the bucket counters of an {@link OnOffCircuitControl} with the same control on other nodes, so that every
+ * node scores the calls of the whole fleet. Every {@code interval} milliseconds it sends, for each bucket in the
+ * window, the calls registered locally since the previous successful send, split in as many messages as the transport
+ * needs, and it merges the deltas received from other nodes
+ * into the control. The control keeps merged calls apart from local ones, so they are never sent back nor reported
+ * to its metrics.
+ * <p>
+ * Nodes are expected to have roughly synchronized clocks and the same bucket width. Messages from nodes with
+ * another bucket width are dropped, with a warning logged once. Latency histograms are not replicated.
+ */
+public class Replicator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Replicator.class);
+
+    public static final long DEFAULT_INTERVAL = 250;
+
+    private String name;
+    private String node = UUID.randomUUID().toString();
+    private OnOffCircuitControl control;
+    private Transport transport;
+    private long interval = DEFAULT_INTERVAL;
+    private ScheduledExecutorService pool = Schedulers.shared();
+
+    private StatsRing sent;
+    private int maxDeltas;
+    private long resets;
+    private ScheduledFuture<?> future;
+    private volatile boolean warnedWidth;
+
+    private final MessageHandler handler = new MessageHandler() {
+        @Override
+        public void onMessage(byte[] message) {
+            receive(message);
+        }
+    };
+
+    public static final class Builder {
+        private final Replicator replicator;
+        private boolean startWorkers = true;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.replicator = new Replicator();
+        }
+
+        /**
+         * Name identifying the replicated control across nodes, so several controls can share a transport.
+         */
+        public Builder withName(String name) {
+            if (name == null) throw new IllegalArgumentException("Name should not be null");
+
+            replicator.name = name;
+            return this;
+        }
+
+        /**
+         * Name of this node. Defaults to a random UUID.
+         */
+        public Builder withNode(String node) {
+            if (node == null) throw new IllegalArgumentException("Node should not be null");
+
+            replicator.node = node;
+            return this;
+        }
+
+        public Builder withControl(OnOffCircuitControl control) {
+            if (control == null) throw new IllegalArgumentException("Control should not be null");
+
+            replicator.control = control;
+            return this;
+        }
+
+        public Builder withTransport(Transport transport) {
+            if (transport == null) throw new IllegalArgumentException("Transport should not be null");
+
+            replicator.transport = transport;
+            return this;
+        }
+
+        /**
+         * Milliseconds between sends. Keep it well below the bucket width so most deltas arrive while their bucket
+         * is still the current one.
+         */
+        public Builder withInterval(long interval) {
+            if (interval <= 0) throw new IllegalArgumentException("Interval should be positive");
+
+            replicator.interval = interval;
+            return this;
+        }
+
+        /**
+         * Scheduler running the sends. Defaults to the JVM-wide shared scheduler.
+         */
+        public Builder withScheduler(ScheduledExecutorService scheduler) {
+            if (scheduler == null) throw new IllegalArgumentException("Scheduler should not be null");
+
+            replicator.pool = scheduler;
+            return this;
+        }
+
+        public Builder startWorkers(boolean startWorkers) {
+            this.startWorkers = startWorkers;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the name and node do not fit in a transport message
+         */
+        public Replicator build() {
+            if (!built.compareAndSet(false,true)) return replicator;
+
+            if (replicator.name == null) throw new IllegalArgumentException("Name should not be null");
+            if (replicator.control == null) throw new IllegalArgumentException("Control should not be null");
+            if (replicator.transport == null) throw new IllegalArgumentException("Transport should not be null");
+
+            replicator.maxDeltas = DeltaMessage.maxDeltas(replicator.name, replicator.node, replicator.transport.getMaxMessageSize());
+            if (replicator.maxDeltas <= 0) throw new IllegalArgumentException("Name and node should fit in a transport message");
+
+            replicator.sent = new StatsRing(replicator.control.getWindowSize() + 2);
+            replicator.resets = replicator.control.getResets();
+
+            replicator.transport.addHandler(replicator.handler);
+
+            if (startWorkers)
+                replicator.future = replicator.pool.scheduleAtFixedRate(replicator::send, replicator.interval, replicator.interval, TimeUnit.MILLISECONDS);
+
+            return replicator;
+        }
+    }
+
+    private Replicator() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Sends the calls registered locally since the previous successful send. Deltas the transport fails to send are
+     * sent again next time, and what was sent is forgotten when the control is reset along with its buckets. Not
+     * thread safe: it runs on the scheduler unless workers are disabled.
+     */
+    public void send() {
+        long resets = control.getResets();
+        if (resets != this.resets) {
+            sent.clear();
+            this.resets = resets;
+        }
+
+        long width = control.getBucketWidth();
+        List<BucketSnapshot> deltas = new ArrayList<>();
+
+        for (BucketSnapshot bucket : control.getLocalBuckets()) {
+            Stats out = sent.acquire(bucket.getStart() / width);
+            if (out == null) continue;
+
+            long successes = Math.max(bucket.getSuccesses() - out.successCount(), 0);
+            long failures = Math.max(bucket.getFailures() - out.failureCount(), 0);
+
+            if (successes + failures == 0) continue;
+
+            deltas.add(new BucketSnapshot(bucket.getStart(), successes, failures));
+
+            if (deltas.size() == maxDeltas) send(deltas);
+        }
+
+        send(deltas);
+    }
+
+    /**
+     * Sends the deltas in a single message and, only if the transport takes it, counts them as sent.
+     */
+    private void send(List<BucketSnapshot> deltas) {
+        if (deltas.isEmpty()) return;
+
+        if (transport.send(new DeltaMessage(name, node, control.getBucketWidth(), deltas).encode())) {
+            long width = control.getBucketWidth();
+
+            for (BucketSnapshot delta : deltas) {
+                Stats out = sent.acquire(delta.getStart() / width);
+                if (out != null) out.add(delta.getSuccesses(), delta.getFailures());
+            }
+        }
+
+        deltas.clear();
+    }
+
+    /**
+     * Merges the deltas of another node. Deltas for buckets out of the control window, or from a node with another
+     * bucket width, are dropped.
+     */
+    private void receive(byte[] message) {
+        DeltaMessage deltas;
+
+        try {
+            deltas = DeltaMessage.decode(message);
+        } catch (IOException e) {
+            LOGGER.warn("Dropping malformed replication message", e);
+            return;
+        }
+
+        if (!name.equals(deltas.getName()) || node.equals(deltas.getNode())) return;
+
+        if (deltas.getWidth() != control.getBucketWidth()) {
+            if (!warnedWidth) {
+                warnedWidth = true;
+                LOGGER.warn("Dropping replication messages for {} from node {} with bucket width {}ms instead of {}ms",
+                        name, deltas.getNode(), deltas.getWidth(), control.getBucketWidth());
+            }
+            return;
+        }
+
+        for (BucketSnapshot delta : deltas.getDeltas())
+            control.merge(delta);
+    }
+
+    public void shutdown() {
+        if (future != null) future.cancel(true);
+
+        transport.removeHandler(handler);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+}
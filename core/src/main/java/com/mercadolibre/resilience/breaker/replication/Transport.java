@@ -0,0 +1,27 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+/**
+ * Carries replication messages between nodes. Delivery is best effort: messages may be lost, duplicated across
+ * handlers or reordered, and a replicator tolerates all of that by only ever sending deltas.
+ */
+public interface Transport {
+
+    /**
+     * Sends the message to every other node. Must not block on slow or unreachable nodes. Returns false if the
+     * message could not be sent at all, such as when it is larger than {@link #getMaxMessageSize()} or the transport
+     * is closed, so the caller can send it again. Messages lost on the way are not reported.
+     */
+    boolean send(byte[] message);
+
+    /**
+     * Largest message, in bytes, the transport sends.
+     */
+    int getMaxMessageSize();
+
+    void addHandler(MessageHandler handler);
+
+    void removeHandler(MessageHandler handler);
+
+    void close();
+
+}
@@ -0,0 +1,194 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends every message as a single datagram to a fixed list of peers and receives on a daemon thread. Lost datagrams
+ * are not retried: the deltas they carried are simply missing from the other nodes' buckets. A send only fails, and
+ * may be retried, if the message is too large, the transport is closed or no peer could be sent to.
+ * Datagrams are only accepted from the address and port of a peer, so each node must list the others with the
+ * addresses they send from.
+ */
+public class UdpTransport implements Transport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdpTransport.class);
+
+    public static final int MAX_MESSAGE_SIZE = 1400;
+
+    private InetSocketAddress address = new InetSocketAddress(0);
+    private final List<InetSocketAddress> peers = new ArrayList<>();
+    private Set<InetSocketAddress> accepted;
+    private final List<MessageHandler> handlers = new CopyOnWriteArrayList<>();
+
+    private DatagramSocket socket;
+    private Thread receiver;
+    private volatile boolean closed;
+
+    public static final class Builder {
+        private final UdpTransport transport;
+        private final AtomicBoolean built = new AtomicBoolean(false);
+
+        private Builder() {
+            this.transport = new UdpTransport();
+        }
+
+        /**
+         * Local address to receive on. Defaults to an ephemeral port on every interface.
+         */
+        public Builder withAddress(InetSocketAddress address) {
+            if (address == null) throw new IllegalArgumentException("Address should not be null");
+
+            transport.address = address;
+            return this;
+        }
+
+        public Builder withPeer(InetSocketAddress peer) {
+            if (peer == null) throw new IllegalArgumentException("Peer should not be null");
+
+            transport.peers.add(peer);
+            return this;
+        }
+
+        public Builder withPeers(List<InetSocketAddress> peers) {
+            if (peers == null) throw new IllegalArgumentException("Peers should not be null");
+
+            for (InetSocketAddress peer : peers)
+                withPeer(peer);
+
+            return this;
+        }
+
+        /**
+         * Binds the socket and starts the receiver thread.
+         *
+         * @throws UncheckedIOException if the socket cannot be bound
+         */
+        public UdpTransport build() {
+            if (!built.compareAndSet(false,true)) return transport;
+
+            transport.accepted = new HashSet<>(transport.peers);
+
+            try {
+                transport.socket = new DatagramSocket(transport.address);
+            } catch (SocketException e) {
+                throw new UncheckedIOException("Could not bind " + transport.address, e);
+            }
+
+            transport.receiver = new Thread(transport::receive, "breaker-replication");
+            transport.receiver.setDaemon(true);
+            transport.receiver.start();
+
+            return transport;
+        }
+    }
+
+    private UdpTransport() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+
+        while (!closed) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (!closed) LOGGER.warn("Could not receive replication message", e);
+                continue;
+            }
+
+            if (!accepted.contains(packet.getSocketAddress())) {
+                LOGGER.debug("Dropping replication message from {}, which is not a peer", packet.getSocketAddress());
+                continue;
+            }
+
+            byte[] message = Arrays.copyOfRange(buffer, packet.getOffset(), packet.getOffset() + packet.getLength());
+
+            for (MessageHandler handler : handlers) {
+                try {
+                    handler.onMessage(message);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Replication handler failed", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean send(byte[] message) {
+        if (message.length > MAX_MESSAGE_SIZE) {
+            LOGGER.warn("Could not send replication message of {} bytes", message.length);
+            return false;
+        }
+
+        if (closed) return false;
+
+        boolean sent = peers.isEmpty();
+
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(message, message.length, peer));
+                sent = true;
+            } catch (IOException e) {
+                LOGGER.debug("Could not send replication message to {}", peer, e);
+            }
+        }
+
+        return sent;
+    }
+
+    @Override
+    public int getMaxMessageSize() {
+        return MAX_MESSAGE_SIZE;
+    }
+
+    @Override
+    public void addHandler(MessageHandler handler) {
+        if (handler == null) throw new IllegalArgumentException("Handler should not be null");
+
+        handlers.add(handler);
+    }
+
+    @Override
+    public void removeHandler(MessageHandler handler) {
+        handlers.remove(handler);
+    }
+
+    /**
+     * Closes the socket, which stops the receiver thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (socket != null) socket.close();
+    }
+
+    public InetSocketAddress getLocalAddress() {
+        return (InetSocketAddress) socket.getLocalSocketAddress();
+    }
+
+    public List<InetSocketAddress> getPeers() {
+        return peers;
+    }
+
+}
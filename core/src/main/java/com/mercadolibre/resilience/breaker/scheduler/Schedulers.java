@@ -0,0 +1,89 @@
+package com.mercadolibre.resilience.breaker.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Schedulers for the breaker background tasks. Breakers and controls share a single JVM-wide scheduler by default,
+ * so the number of threads does not grow with the number of breakers.
+ */
+public final class Schedulers {
+
+    public static final int DEFAULT_SHARED_THREADS = 2;
+
+    private static final class SharedHolder {
+        private static final ScheduledExecutorService SHARED = newScheduler(DEFAULT_SHARED_THREADS, "breaker-scheduler");
+    }
+
+    private static final class ExecutorHolder {
+        private static final ExecutorService EXECUTOR = newExecutor();
+    }
+
+    private static final class NotifierHolder {
+        private static final ExecutorService NOTIFIER = Executors.newSingleThreadExecutor(daemonFactory("breaker-notifier"));
+    }
+
+    private Schedulers() {
+    }
+
+    /**
+     * Executor running actions of breakers with a timeout. Uses virtual threads when the JVM supports them
+     * and a cached pool of daemon threads otherwise.
+     */
+    public static ExecutorService executor() {
+        return ExecutorHolder.EXECUTOR;
+    }
+
+    /**
+     * Single thread delivering breaker events to listeners, apart from the scheduler so that slow listeners
+     * never delay state switches.
+     */
+    public static ExecutorService notifier() {
+        return NotifierHolder.NOTIFIER;
+    }
+
+    private static ExecutorService newExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonFactory("breaker-executor"));
+        }
+    }
+
+    private static ThreadFactory daemonFactory(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    public static ScheduledExecutorService shared() {
+        return SharedHolder.SHARED;
+    }
+
+    /**
+     * Creates a scheduler running on daemon threads that drops cancelled tasks right away,
+     * so shutting down a breaker releases its tasks.
+     */
+    public static ScheduledExecutorService newScheduler(int threads, String name) {
+        if (threads <= 0) throw new IllegalArgumentException("Threads should be positive");
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(threads, daemonFactory(name));
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        return scheduler;
+    }
+
+}
@@ -0,0 +1,239 @@
+package com.mercadolibre.resilience.breaker.scheduler;
+
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scheduler running tasks on the virtual time of a {@link ManualClock}, on the thread calling
+ * {@link #advanceTo(long)}. Tasks due at the same time run in the order they were scheduled, so runs are
+ * deterministic. Meant for tests and simulations; it is not thread safe.
+ */
+public class VirtualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final ManualClock clock;
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+    private long sequence;
+    private boolean shutdown;
+
+    public VirtualScheduler(ManualClock clock) {
+        if (clock == null) throw new IllegalArgumentException("Clock should not be null");
+
+        this.clock = clock;
+    }
+
+    /**
+     * Runs every task due up to {@code time}, moving the clock to each task's time before running it,
+     * and leaves the clock at {@code time}.
+     */
+    public void advanceTo(long time) {
+        if (time < clock.currentTimeMillis()) throw new IllegalArgumentException("Clock can not go backwards");
+
+        Task<?> task;
+        while ((task = queue.peek()) != null && task.time <= time) {
+            queue.poll();
+
+            if (task.isCancelled()) continue;
+
+            if (task.time > clock.currentTimeMillis()) clock.set(task.time);
+
+            task.run();
+        }
+
+        clock.set(time);
+    }
+
+    public void advance(long millis) {
+        advanceTo(clock.currentTimeMillis() + millis);
+    }
+
+    /**
+     * Number of scheduled tasks not cancelled yet.
+     */
+    public int pending() {
+        int count = 0;
+        for (Task<?> task : queue)
+            if (!task.isCancelled()) count++;
+
+        return count;
+    }
+
+    private <V> Task<V> enqueue(Callable<V> callable, long delay, long period, TimeUnit unit) {
+        if (shutdown) throw new RejectedExecutionException("Scheduler is shut down");
+
+        Task<V> task = new Task<>(callable, clock.currentTimeMillis() + Math.max(unit.toMillis(delay), 0), unit.toMillis(period), sequence++);
+        queue.add(task);
+
+        return task;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return enqueue(callable(command), delay, 0, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return enqueue(callable, delay, 0, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) throw new IllegalArgumentException("Period should be positive");
+
+        return enqueue(callable(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        return scheduleAtFixedRate(command, initialDelay, delay, unit);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        enqueue(callable(command), 0, 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+
+        List<Runnable> pending = new ArrayList<>(queue);
+        queue.clear();
+
+        return pending;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && queue.isEmpty();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return isTerminated();
+    }
+
+    private static Callable<Object> callable(final Runnable command) {
+        if (command == null) throw new NullPointerException();
+
+        return new Callable<Object>() {
+            @Override
+            public Object call() {
+                command.run();
+                return null;
+            }
+        };
+    }
+
+    private final class Task<V> implements ScheduledFuture<V>, Runnable {
+        private final Callable<V> callable;
+        private final long period;
+        private long time;
+        private long order;
+
+        private boolean cancelled;
+        private boolean done;
+        private V result;
+        private Exception failure;
+
+        private Task(Callable<V> callable, long time, long period, long order) {
+            this.callable = callable;
+            this.time = time;
+            this.period = period;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            try {
+                V value = callable.call();
+
+                if (period > 0) {
+                    time += period;
+                    order = sequence++;
+                    queue.add(this);
+                } else {
+                    result = value;
+                    done = true;
+                }
+            } catch (Exception e) {
+                failure = e;
+                done = true;
+            }
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - clock.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            Task<?> other = (Task<?>) o;
+            if (time != other.time) return Long.compare(time, other.time);
+
+            return Long.compare(order, other.order);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) return false;
+
+            cancelled = true;
+            done = true;
+            queue.remove(this);
+
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public V get() throws ExecutionException {
+            if (cancelled) throw new CancellationException();
+            if (!done) throw new IllegalStateException("Task has not run yet, advance the scheduler first");
+            if (failure != null) throw new ExecutionException(failure);
+
+            return result;
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws ExecutionException, TimeoutException {
+            if (!done) throw new TimeoutException();
+
+            return get();
+        }
+    }
+
+}
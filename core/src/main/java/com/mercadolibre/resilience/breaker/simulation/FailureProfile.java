@@ -0,0 +1,13 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+/**
+ * Failure rate of a simulated dependency over time.
+ */
+public interface FailureProfile {
+
+    /**
+     * Returns the probability, from 0 to 1, that a call made {@code elapsed} milliseconds into the simulation fails.
+     */
+    double failureRate(long elapsed);
+
+}
@@ -0,0 +1,76 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+public final class FailureProfiles {
+
+    private FailureProfiles() {
+    }
+
+    private static void checkRate(double rate) {
+        if (rate < 0 || rate > 1) throw new IllegalArgumentException("Failure rate must be between 0 and 1");
+    }
+
+    public static FailureProfile constant(final double rate) {
+        checkRate(rate);
+
+        return new FailureProfile() {
+            @Override
+            public double failureRate(long elapsed) {
+                return rate;
+            }
+        };
+    }
+
+    /**
+     * Fails at {@code rate} from {@code from} until {@code to} milliseconds and at {@code baseline} otherwise.
+     */
+    public static FailureProfile step(final long from, final long to, final double baseline, final double rate) {
+        if (to <= from) throw new IllegalArgumentException("Step must end after it starts");
+        checkRate(baseline);
+        checkRate(rate);
+
+        return new FailureProfile() {
+            @Override
+            public double failureRate(long elapsed) {
+                return elapsed >= from && elapsed < to ? rate : baseline;
+            }
+        };
+    }
+
+    /**
+     * Degrades linearly from {@code baseline} at {@code from} to {@code rate} at {@code to} milliseconds, and stays there.
+     */
+    public static FailureProfile gradual(final long from, final long to, final double baseline, final double rate) {
+        if (to <= from) throw new IllegalArgumentException("Degradation must end after it starts");
+        checkRate(baseline);
+        checkRate(rate);
+
+        return new FailureProfile() {
+            @Override
+            public double failureRate(long elapsed) {
+                if (elapsed < from) return baseline;
+                if (elapsed >= to) return rate;
+
+                return baseline + (rate - baseline) * (elapsed - from) / (to - from);
+            }
+        };
+    }
+
+    /**
+     * Alternates between {@code baseline} and {@code rate} every {@code period} milliseconds from {@code from} on.
+     */
+    public static FailureProfile flapping(final long from, final long period, final double baseline, final double rate) {
+        if (period <= 0) throw new IllegalArgumentException("Period must be positive");
+        checkRate(baseline);
+        checkRate(rate);
+
+        return new FailureProfile() {
+            @Override
+            public double failureRate(long elapsed) {
+                if (elapsed < from) return baseline;
+
+                return ((elapsed - from) / period) % 2 == 0 ? rate : baseline;
+            }
+        };
+    }
+
+}
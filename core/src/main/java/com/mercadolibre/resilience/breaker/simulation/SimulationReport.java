@@ -0,0 +1,122 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+import com.mercadolibre.resilience.breaker.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a {@link Simulator} run. Times are in milliseconds from the start of the simulation.
+ * An episode is a period in which the dependency failure rate is above the simulator unhealthy threshold.
+ */
+public class SimulationReport {
+
+    public static final class Transition {
+        private final long time;
+        private final State state;
+
+        Transition(long time, State state) {
+            this.time = time;
+            this.state = state;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public String toString() {
+            return time + "ms " + state;
+        }
+    }
+
+    long calls;
+    long failures;
+    long rejections;
+    long rejectedGoodCalls;
+    int falseTrips;
+    int episodes;
+    int missedEpisodes;
+
+    final List<Long> timesToOpen = new ArrayList<>();
+    final List<Long> timesToClose = new ArrayList<>();
+    final List<Transition> transitions = new ArrayList<>();
+
+    SimulationReport() {
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Calls rejected by the breaker that would have succeeded.
+     */
+    public long getRejectedGoodCalls() {
+        return rejectedGoodCalls;
+    }
+
+    /**
+     * Times the breaker opened from closed while the dependency was healthy.
+     */
+    public int getFalseTrips() {
+        return falseTrips;
+    }
+
+    public int getEpisodes() {
+        return episodes;
+    }
+
+    /**
+     * Episodes that ended without the breaker opening.
+     */
+    public int getMissedEpisodes() {
+        return missedEpisodes;
+    }
+
+    /**
+     * For each episode in which the breaker opened, the time from the start of the episode until it opened.
+     */
+    public List<Long> getTimesToOpen() {
+        return Collections.unmodifiableList(timesToOpen);
+    }
+
+    /**
+     * For each episode after which the breaker closed, the time from the end of the episode until it closed.
+     */
+    public List<Long> getTimesToClose() {
+        return Collections.unmodifiableList(timesToClose);
+    }
+
+    public List<Transition> getTransitions() {
+        return Collections.unmodifiableList(transitions);
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationReport{calls=" + calls +
+                ", failures=" + failures +
+                ", rejections=" + rejections +
+                ", rejectedGoodCalls=" + rejectedGoodCalls +
+                ", falseTrips=" + falseTrips +
+                ", episodes=" + episodes +
+                ", missedEpisodes=" + missedEpisodes +
+                ", timesToOpen=" + timesToOpen +
+                ", timesToClose=" + timesToClose +
+                "}";
+    }
+
+}
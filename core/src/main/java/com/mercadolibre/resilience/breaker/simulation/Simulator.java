@@ -0,0 +1,223 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.CircuitBreaker;
+import com.mercadolibre.resilience.breaker.Result;
+import com.mercadolibre.resilience.breaker.State;
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.scheduler.VirtualScheduler;
+
+import java.util.Random;
+
+/**
+ * Drives a breaker with scripted traffic against a {@link FailureProfile} on virtual time, and reports how fast
+ * it reacts. Build the breaker, and its control if given explicitly, with {@link #getClock()} and
+ * {@link #getScheduler()} so the switch and the collector run on virtual time too. Runs are deterministic for a
+ * given seed. The breaker state is sampled before and after each call, so transitions are seen with the
+ * resolution of the call rate.
+ */
+public class Simulator {
+
+    public static final int DEFAULT_CALLS_PER_SECOND = 100;
+    public static final long DEFAULT_DURATION = 10 * 60 * 1000;
+    public static final double DEFAULT_UNHEALTHY_THRESHOLD = 0.5;
+
+    private static final Exception FAILURE = new Exception("Simulated failure");
+
+    private static final Action<Boolean> SUCCEEDING = new Action<Boolean>() {
+        @Override
+        public Boolean get() {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return e == null;
+        }
+    };
+
+    private static final Action<Boolean> FAILING = new Action<Boolean>() {
+        @Override
+        public Boolean get() throws Exception {
+            throw FAILURE;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return e == null;
+        }
+    };
+
+    private int callsPerSecond = DEFAULT_CALLS_PER_SECOND;
+    private long duration = DEFAULT_DURATION;
+    private double unhealthyThreshold = DEFAULT_UNHEALTHY_THRESHOLD;
+    private long seed;
+    private FailureProfile profile = FailureProfiles.constant(0);
+
+    private final ManualClock clock = new ManualClock();
+    private final VirtualScheduler scheduler = new VirtualScheduler(clock);
+
+    public static final class Builder {
+        private final Simulator simulator;
+
+        private Builder() {
+            this.simulator = new Simulator();
+        }
+
+        public Builder withCallsPerSecond(int callsPerSecond) {
+            if (callsPerSecond <= 0) throw new IllegalArgumentException("Calls per second should be positive");
+
+            simulator.callsPerSecond = callsPerSecond;
+            return this;
+        }
+
+        public Builder withDuration(long duration) {
+            if (duration <= 0) throw new IllegalArgumentException("Duration should be positive");
+
+            simulator.duration = duration;
+            return this;
+        }
+
+        /**
+         * Failure rate above which the dependency counts as unhealthy, for episodes and false trips.
+         */
+        public Builder withUnhealthyThreshold(double unhealthyThreshold) {
+            if (unhealthyThreshold < 0 || unhealthyThreshold >= 1) throw new IllegalArgumentException("Unhealthy threshold should be between 0 and 1");
+
+            simulator.unhealthyThreshold = unhealthyThreshold;
+            return this;
+        }
+
+        public Builder withSeed(long seed) {
+            simulator.seed = seed;
+            return this;
+        }
+
+        public Builder withProfile(FailureProfile profile) {
+            if (profile == null) throw new IllegalArgumentException("Profile should not be null");
+
+            simulator.profile = profile;
+            return this;
+        }
+
+        public Simulator build() {
+            return simulator;
+        }
+    }
+
+    private Simulator() {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ManualClock getClock() {
+        return clock;
+    }
+
+    public VirtualScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public SimulationReport run(CircuitBreaker breaker) {
+        if (breaker == null) throw new IllegalArgumentException("Breaker should not be null");
+
+        Random random = new Random(seed);
+        SimulationReport report = new SimulationReport();
+        Run run = new Run(report, clock.currentTimeMillis(), breaker.getState());
+
+        long calls = duration * callsPerSecond / 1000;
+
+        for (long i = 0; i < calls; i++) {
+            long elapsed = i * 1000 / callsPerSecond;
+
+            scheduler.advanceTo(run.start + elapsed);
+            run.observe(breaker.getState(), elapsed);
+
+            double rate = profile.failureRate(elapsed);
+            run.health(rate <= unhealthyThreshold, elapsed, breaker.getState());
+
+            boolean fails = random.nextDouble() < rate;
+            Result<Boolean> result = breaker.tryRun(fails ? FAILING : SUCCEEDING);
+
+            report.calls++;
+            if (result.isRejected()) {
+                report.rejections++;
+                if (!fails) report.rejectedGoodCalls++;
+            } else if (result.isFailure())
+                report.failures++;
+
+            run.observe(breaker.getState(), elapsed);
+        }
+
+        scheduler.advanceTo(run.start + duration);
+        run.observe(breaker.getState(), duration);
+
+        return report;
+    }
+
+    private static final class Run {
+        private final SimulationReport report;
+        private final long start;
+
+        private State state;
+        private boolean healthy = true;
+        private boolean inEpisode;
+        private boolean openedInEpisode;
+        private long episodeStart;
+        private boolean awaitingClose;
+        private long episodeEnd;
+
+        private Run(SimulationReport report, long start, State state) {
+            this.report = report;
+            this.start = start;
+            this.state = state;
+        }
+
+        private void health(boolean healthy, long elapsed, State current) {
+            if (healthy == this.healthy) return;
+
+            this.healthy = healthy;
+
+            if (!healthy) {
+                report.episodes++;
+                inEpisode = true;
+                openedInEpisode = current == State.OPEN;
+                episodeStart = elapsed;
+                awaitingClose = false;
+            } else {
+                inEpisode = false;
+
+                if (!openedInEpisode)
+                    report.missedEpisodes++;
+                else if (current != State.CLOSED) {
+                    awaitingClose = true;
+                    episodeEnd = elapsed;
+                } else
+                    report.timesToClose.add(0L);
+            }
+        }
+
+        private void observe(State current, long elapsed) {
+            if (current == state) return;
+
+            State previous = state;
+            state = current;
+            report.transitions.add(new SimulationReport.Transition(elapsed, current));
+
+            if (current == State.OPEN) {
+                if (inEpisode && !openedInEpisode) {
+                    openedInEpisode = true;
+                    report.timesToOpen.add(elapsed - episodeStart);
+                } else if (healthy && previous == State.CLOSED)
+                    report.falseTrips++;
+
+            } else if (current == State.CLOSED && awaitingClose) {
+                awaitingClose = false;
+                report.timesToClose.add(elapsed - episodeEnd);
+            }
+        }
+    }
+
+}
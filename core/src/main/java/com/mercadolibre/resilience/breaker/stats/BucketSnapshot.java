@@ -0,0 +1,42 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+/**
+ * Counters of one stats bucket at the time it was read.
+ */
+public final class BucketSnapshot {
+
+    private final long start;
+    private final long successes;
+    private final long failures;
+
+    public BucketSnapshot(long start, long successes, long failures) {
+        this.start = start;
+        this.successes = successes;
+        this.failures = failures;
+    }
+
+    /**
+     * Clock time, in milliseconds, at which the bucket begins.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public long getCount() {
+        return successes + failures;
+    }
+
+    @Override
+    public String toString() {
+        return "BucketSnapshot{start=" + start + ", successes=" + successes + ", failures=" + failures + "}";
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of call durations in microseconds.
+ * Values below 16us get their own bucket and every power of two above is split in 8 linear buckets,
+ * so the relative error stays under 12.5%. Values beyond ~19 hours fall in the last bucket.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+    private static final int MAX_EXPONENT = 36;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public static int index(long micros) {
+        long v = Math.min(Math.max(micros, 0), MAX_VALUE);
+        if (v < LINEAR_LIMIT) return (int) v;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) (v >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+    }
+
+    public static long lowerBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index % SUB_BUCKETS + SUB_BUCKETS;
+
+        return mantissa << shift;
+    }
+
+    public static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) return index;
+
+        return lowerBound(index) + (1L << (index / SUB_BUCKETS - 1)) - 1;
+    }
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(nanos / 1000));
+    }
+
+    public long get(int index) {
+        return counts.get(index);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+    }
+
+    /**
+     * Adds the counts of {@code other} into this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+    }
+
+    /**
+     * Adds this histogram's counts into {@code target}, which must hold {@link #BUCKETS} elements.
+     */
+    public void addTo(long[] target) {
+        for (int i = 0; i < BUCKETS; i++)
+            target[i] += counts.get(i);
+    }
+
+    /**
+     * Subtracts this histogram's counts from {@code target}, which must hold {@link #BUCKETS} elements, without
+     * taking any element below zero.
+     */
+    public void subtractFrom(long[] target) {
+        for (int i = 0; i < BUCKETS; i++)
+            target[i] = Math.max(0, target[i] - counts.get(i));
+    }
+
+    /**
+     * Returns the number of recorded values at or above the bucket holding {@code micros}.
+     */
+    public static long countAtLeast(long[] counts, long micros) {
+        long sum = 0;
+        for (int i = index(micros); i < BUCKETS; i++)
+            sum += counts[i];
+
+        return sum;
+    }
+
+    /**
+     * Returns the upper bound, in microseconds, of the bucket holding the given percentile (0 to 100).
+     */
+    public static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long c : counts)
+            total += c;
+
+        if (total == 0) return 0;
+
+        long rank = (long) Math.ceil(total * percentile / 100);
+        if (rank < 1) rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return upperBound(i);
+        }
+
+        return upperBound(BUCKETS - 1);
+    }
+
+}
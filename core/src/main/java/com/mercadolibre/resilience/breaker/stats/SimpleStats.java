@@ -4,6 +4,13 @@ import java.util.concurrent.atomic.AtomicLong;
 
 public class SimpleStats extends Stats {
 
+    public static final StatsFactory FACTORY = new StatsFactory() {
+        @Override
+        public Stats create() {
+            return new SimpleStats();
+        }
+    };
+
     private final AtomicLong successes = new AtomicLong();
     private final AtomicLong failures = new AtomicLong();
 
@@ -17,6 +24,12 @@ public class SimpleStats extends Stats {
         return failures.incrementAndGet();
     }
 
+    @Override
+    public void add(long successes, long failures) {
+        if (successes != 0) this.successes.addAndGet(successes);
+        if (failures != 0) this.failures.addAndGet(failures);
+    }
+
     @Override
     public long successCount() {
         return successes.get();
@@ -27,4 +40,10 @@ public class SimpleStats extends Stats {
         return failures.get();
     }
 
+    @Override
+    public void reset() {
+        successes.set(0);
+        failures.set(0);
+    }
+
 }
@@ -10,6 +10,19 @@ public abstract class Stats {
 
     public abstract long failureCount();
 
+    public abstract void reset();
+
+    /**
+     * Adds counts in bulk. Implementations should override this; the default registers them one by one.
+     */
+    public void add(long successes, long failures) {
+        for (long i = 0; i < successes; i++)
+            addSuccess();
+
+        for (long i = 0; i < failures; i++)
+            addFailure();
+    }
+
     public double failureRate() {
         long fails = failureCount();
 
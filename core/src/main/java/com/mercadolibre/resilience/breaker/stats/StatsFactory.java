@@ -0,0 +1,7 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+public interface StatsFactory {
+
+    Stats create();
+
+}
@@ -0,0 +1,114 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of {@link Stats}, one slot per time bucket.
+ * A bucket lives in slot {@code key % capacity}, tagged with its key. The first writer of a newer bucket swaps fresh
+ * stats into the slot with a CAS, so no writer ever waits: writers racing on a roll-over all end up with the stats
+ * that won, and a writer still holding the stats of the previous bucket adds to those, which are no longer read.
+ */
+public class StatsRing {
+
+    private static final class Bucket {
+        private final long key;
+        private final Stats stats;
+        private final LatencyHistogram histogram;
+
+        private Bucket(long key, Stats stats, LatencyHistogram histogram) {
+            this.key = key;
+            this.stats = stats;
+            this.histogram = histogram;
+        }
+    }
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final StatsFactory factory;
+    private final boolean latency;
+
+    public StatsRing(int capacity) {
+        this(capacity, SimpleStats.FACTORY);
+    }
+
+    public StatsRing(int capacity, StatsFactory factory) {
+        this(capacity, factory, false);
+    }
+
+    public StatsRing(int capacity, StatsFactory factory, boolean latency) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+        if (factory == null) throw new IllegalArgumentException("Factory should not be null");
+
+        this.buckets = new AtomicReferenceArray<>(capacity);
+        this.factory = factory;
+        this.latency = latency;
+    }
+
+    private int index(long key) {
+        return (int) Math.floorMod(key, (long) buckets.length());
+    }
+
+    /**
+     * Returns the stats for the given bucket, replacing the slot if it still holds an older bucket.
+     * Returns null if the slot has already been taken by a newer bucket. A slot is only reused {@code capacity}
+     * buckets later, so a writer that already holds the stats of a bucket adds to it unless it stalls for that long.
+     */
+    public Stats acquire(long key) {
+        int i = index(key);
+        Bucket fresh = null;
+
+        while (true) {
+            Bucket current = buckets.get(i);
+
+            if (current != null) {
+                if (current.key == key) return current.stats;
+                if (current.key > key) return null;
+            }
+
+            if (fresh == null) fresh = new Bucket(key, factory.create(), latency ? new LatencyHistogram() : null);
+
+            if (buckets.compareAndSet(i, current, fresh)) return fresh.stats;
+        }
+    }
+
+    private Bucket bucket(long key) {
+        Bucket bucket = buckets.get(index(key));
+
+        return bucket != null && bucket.key == key ? bucket : null;
+    }
+
+    /**
+     * Returns the stats for the given bucket, or null if nothing has been registered for it.
+     */
+    public Stats get(long key) {
+        Bucket bucket = bucket(key);
+
+        return bucket != null ? bucket.stats : null;
+    }
+
+    /**
+     * Returns the latency histogram for the given bucket, or null if latency is not tracked or the slot
+     * does not hold that bucket. Call {@link #acquire(long)} first to claim the slot when recording.
+     */
+    public LatencyHistogram histogram(long key) {
+        Bucket bucket = bucket(key);
+
+        return bucket != null ? bucket.histogram : null;
+    }
+
+    /**
+     * Drops every bucket.
+     */
+    public void clear() {
+        for (int i = 0; i < buckets.length(); i++)
+            buckets.set(i, null);
+    }
+
+    public boolean tracksLatency() {
+        return latency;
+    }
+
+    public int capacity() {
+        return buckets.length();
+    }
+
+}
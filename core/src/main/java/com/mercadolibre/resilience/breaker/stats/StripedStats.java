@@ -0,0 +1,77 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Stats} backed by {@link LongAdder}s, so that threads sharing a bucket do not contend on the same cache line.
+ * The adders only grow extra cells under contention and rehash threads that keep colliding. Updates never read the
+ * totals, so {@link #addSuccess()} and {@link #addFailure()} always return 0, and reads sum every cell.
+ */
+public class StripedStats extends Stats {
+
+    public static final StatsFactory FACTORY = new StatsFactory() {
+        @Override
+        public Stats create() {
+            return new StripedStats();
+        }
+    };
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public StripedStats() {
+    }
+
+    /**
+     * @deprecated cells are now managed by {@link LongAdder}; the number of stripes is ignored.
+     */
+    @Deprecated
+    public StripedStats(int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("Stripes must be positive");
+    }
+
+    /**
+     * @deprecated cells are now managed by {@link LongAdder}; use {@link #FACTORY}.
+     */
+    @Deprecated
+    public static StatsFactory factory(final int stripes) {
+        if (stripes <= 0) throw new IllegalArgumentException("Stripes must be positive");
+
+        return FACTORY;
+    }
+
+    @Override
+    public long addSuccess() {
+        successes.increment();
+        return 0;
+    }
+
+    @Override
+    public long addFailure() {
+        failures.increment();
+        return 0;
+    }
+
+    @Override
+    public void add(long successes, long failures) {
+        if (successes != 0) this.successes.add(successes);
+        if (failures != 0) this.failures.add(failures);
+    }
+
+    @Override
+    public long successCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public void reset() {
+        successes.reset();
+        failures.reset();
+    }
+
+}
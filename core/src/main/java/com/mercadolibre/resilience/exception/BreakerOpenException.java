@@ -0,0 +1,30 @@
+package com.mercadolibre.resilience.exception;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a breaker rejects a call because it is open, or half open with all its trial calls taken.
+ */
+public class BreakerOpenException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BreakerOpenException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an instance without a stack trace, meant to be preallocated and thrown repeatedly.
+     */
+    public static BreakerOpenException stackless(String message) {
+        return new BreakerOpenException(message) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.mercadolibre.resilience.exception;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Thrown when a breaker already has as many calls in flight as its bulkhead allows.
+ */
+public class BulkheadFullException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+
+    /**
+     * Creates an instance without a stack trace, meant to be preallocated and thrown repeatedly.
+     */
+    public static BulkheadFullException stackless(String message) {
+        return new BulkheadFullException(message) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public synchronized Throwable fillInStackTrace() {
+                return this;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.mercadolibre.resilience.exception;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Thrown when an action does not complete within the breaker timeout. The action has been cancelled and
+ * registered with the control.
+ */
+public class CallTimeoutException extends ExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallTimeoutException(String message) {
+        super(message);
+    }
+
+}
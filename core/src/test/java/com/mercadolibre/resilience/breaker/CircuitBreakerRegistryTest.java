@@ -0,0 +1,177 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.control.CountWindowCircuitControl;
+import com.mercadolibre.resilience.breaker.util.TestUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CircuitBreakerRegistryTest {
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final ManualClock clock = new ManualClock(0);
+
+    private final CircuitBreakerFactory factory = new CircuitBreakerFactory() {
+        @Override
+        public CircuitBreaker create(String name) {
+            created.incrementAndGet();
+            return CircuitBreaker.builder()
+                    .withControl(CountWindowCircuitControl.builder().build())
+                    .eventDriven(true)
+                    .withInterval(1000)
+                    .withTryWindow(100)
+                    .build();
+        }
+    };
+
+    @Test
+    public void shouldCreateBreakersLazily() {
+        CircuitBreakerRegistry registry = registry(100, 1000);
+
+        assertNull(registry.find("a"));
+        assertEquals(0, created.get());
+
+        CircuitBreaker a = registry.get("a");
+
+        assertTrue(a == registry.get("a"));
+        assertTrue(a == registry.find("a"));
+        assertFalse(a == registry.get("b"));
+        assertEquals(2, created.get());
+        assertEquals(2, registry.size());
+
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldEvictIdleBreakers() {
+        CircuitBreakerRegistry registry = registry(100, 1000);
+
+        registry.get("a");
+        clock.advance(600);
+        registry.get("b");
+        clock.advance(600);
+
+        registry.evictIdle();
+
+        assertNull(registry.find("a"));
+        assertNotNull(registry.find("b"));
+
+        registry.get("b");
+        clock.advance(600);
+        registry.evictIdle();
+
+        assertNotNull(registry.find("b"));
+
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedOverMaxSize() {
+        CircuitBreakerRegistry registry = registry(10, 100000);
+
+        for (int i = 0; i < 10; i++) {
+            registry.get("key" + i);
+            clock.advance(1);
+        }
+
+        registry.get("key0");
+        clock.advance(1);
+        registry.get("key10");
+
+        assertEquals(10, registry.size());
+        assertNotNull(registry.find("key0"));
+        assertNotNull(registry.find("key10"));
+        assertNull(registry.find("key1"));
+        assertNotNull(registry.find("key2"));
+
+        clock.advance(1);
+        registry.get("key11");
+
+        assertEquals(10, registry.size());
+        assertNotNull(registry.find("key0"));
+        assertNull(registry.find("key2"));
+
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldStayWithinMaxSizeUnderConcurrentInserts() throws InterruptedException {
+        final CircuitBreakerRegistry registry = registry(50, 100000);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 500; i++)
+                        registry.get("key" + id + "-" + i);
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertTrue(registry.size() <= 50);
+
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldRemoveBreakers() {
+        CircuitBreakerRegistry registry = registry(10, 1000);
+
+        registry.get("a");
+
+        assertTrue(registry.remove("a"));
+        assertFalse(registry.remove("a"));
+        assertEquals(0, registry.size());
+
+        registry.shutdown();
+    }
+
+    @Test
+    public void shouldScheduleEviction() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.builder().withFactory(factory).build();
+
+        ScheduledFuture<?> future = (ScheduledFuture<?>) TestUtil.getAttribute("evictionFuture", registry);
+
+        assertNotNull(future);
+
+        registry.shutdown();
+
+        assertTrue(future.isCancelled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireFactory() {
+        CircuitBreakerRegistry.builder().build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveMaxSize() {
+        CircuitBreakerRegistry.builder().withMaxSize(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullName() {
+        registry(10, 1000).get(null);
+    }
+
+    private CircuitBreakerRegistry registry(int maxSize, long idleTimeout) {
+        return CircuitBreakerRegistry.builder()
+                .withFactory(factory)
+                .withMaxSize(maxSize)
+                .withIdleTimeout(idleTimeout)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+    }
+
+}
@@ -0,0 +1,1523 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.control.AdaptiveLimitCircuitControl;
+import com.mercadolibre.resilience.breaker.control.CircuitControl;
+import com.mercadolibre.resilience.breaker.control.CountWindowCircuitControl;
+import com.mercadolibre.resilience.breaker.control.OnOffCircuitControl;
+import com.mercadolibre.resilience.breaker.control.TimedCircuitControl;
+import com.mercadolibre.resilience.breaker.metrics.BreakerEvents;
+import com.mercadolibre.resilience.breaker.scheduler.Schedulers;
+import com.mercadolibre.resilience.breaker.util.TestUtil;
+import com.mercadolibre.resilience.exception.BreakerOpenException;
+import com.mercadolibre.resilience.exception.BulkheadFullException;
+import com.mercadolibre.resilience.exception.CallTimeoutException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void shouldWorkWhileClosed() throws ExecutionException {
+        final List<Object> actions = Collections.synchronizedList(new LinkedList<>());
+
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                actions.add(action);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                actions.add(e);
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        assertEquals(State.CLOSED, breaker.getState());
+
+        boolean result = breaker.run(new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        });
+
+        assertTrue(result);
+
+        Exception t = null;
+
+        try {
+            breaker.run(new Action<Boolean>() {
+                @Override
+                public Boolean get() throws Exception {
+                    throw new RuntimeException();
+                }
+
+                @Override
+                public boolean isValid(Boolean result, Exception e) {
+                    return false;
+                }
+            });
+        } catch (ExecutionException e) {
+            t = e;
+        }
+
+        assertNotNull(t);
+
+        assertEquals(2, actions.size());
+
+        assertTrue(actions.get(0) instanceof Action);
+        assertTrue(actions.get(1) instanceof RuntimeException);
+    }
+
+
+    @Test
+    public void shouldWorkWhileHalfOpen() throws ExecutionException {
+        final List<Object> actions = Collections.synchronizedList(new LinkedList<>());
+
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                actions.add(action);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                actions.add(e);
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        breaker.setState(State.HALF_OPEN);
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        boolean result = breaker.run(new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        });
+
+        assertTrue(result);
+
+        Exception t = null;
+
+        try {
+            breaker.run(new Action<Boolean>() {
+                @Override
+                public Boolean get() throws Exception {
+                    throw new RuntimeException();
+                }
+
+                @Override
+                public boolean isValid(Boolean result, Exception e) {
+                    return false;
+                }
+            });
+        } catch (ExecutionException e) {
+            t = e;
+        }
+
+        assertNotNull(t);
+
+        assertEquals(2, actions.size());
+
+        assertTrue(actions.get(0) instanceof Action);
+        assertTrue(actions.get(1) instanceof RuntimeException);
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldWorkWhileOpen() throws ExecutionException {
+        final List<Object> actions = Collections.synchronizedList(new LinkedList<>());
+
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                actions.add(action);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                actions.add(e);
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        breaker.setState(State.OPEN);
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        breaker.run(new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        });
+    }
+
+    @Test
+    public void shouldTimeActionsForLatencyAwareControl() throws ExecutionException {
+        final List<Long> durations = Collections.synchronizedList(new LinkedList<Long>());
+
+        CircuitControl control = new TimedCircuitControl() {
+            @Override
+            public boolean isLatencyAware() {
+                return true;
+            }
+
+            @Override
+            public <T> void register(Action<T> action, T data, long nanos) {
+                durations.add(nanos);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e, long nanos) {
+                durations.add(nanos);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                fail("Should register with duration");
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                fail("Should register with duration");
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        breaker.run(new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                LockSupport.parkNanos(2000000);
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        });
+
+        assertEquals(1, durations.size());
+        assertTrue(durations.get(0) >= 2000000);
+    }
+
+    @Test
+    public void shouldBoundHalfOpenCalls() throws ExecutionException {
+        final List<Object> actions = Collections.synchronizedList(new LinkedList<>());
+
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                actions.add(action);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                actions.add(e);
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return true;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return false;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .withHalfOpenPermits(2, 0.5)
+                .build();
+
+        breaker.setState(State.HALF_OPEN);
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        };
+
+        assertTrue(breaker.run(action));
+        assertNull(breaker.getTrialVerdict());
+        assertTrue(breaker.run(action));
+        assertEquals(Boolean.TRUE, breaker.getTrialVerdict());
+
+        Exception rejected = null;
+        try {
+            breaker.run(action);
+        } catch (RejectedExecutionException e) {
+            rejected = e;
+        }
+
+        assertNotNull(rejected);
+        assertEquals(2, actions.size());
+
+        breaker.setState(State.HALF_OPEN);
+
+        assertNull(breaker.getTrialVerdict());
+        assertTrue(breaker.run(action));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveHalfOpenPermits() {
+        CircuitBreaker.builder().withHalfOpenPermits(0, 0.5);
+    }
+
+    @Test
+    public void shouldRegisterAsyncOutcomeOnCompletion() throws Exception {
+        final List<Object> actions = Collections.synchronizedList(new LinkedList<>());
+
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                actions.add(data);
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                actions.add(e);
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        final CompletableFuture<Boolean> pending = new CompletableFuture<>();
+
+        CompletableFuture<Boolean> result = breaker.runAsync(new AsyncAction<Boolean>() {
+            @Override
+            public CompletionStage<Boolean> get() throws Exception {
+                return pending;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return e == null;
+            }
+        });
+
+        assertFalse(result.isDone());
+        assertTrue(actions.isEmpty());
+
+        pending.complete(true);
+
+        assertTrue(result.get());
+        assertEquals(1, actions.size());
+        assertEquals(Boolean.TRUE, actions.get(0));
+
+        final RuntimeException failure = new RuntimeException();
+
+        CompletableFuture<Boolean> failed = breaker.runAsync(new AsyncAction<Boolean>() {
+            @Override
+            public CompletionStage<Boolean> get() throws Exception {
+                CompletableFuture<Boolean> future = new CompletableFuture<>();
+                future.completeExceptionally(failure);
+                return future;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return e == null;
+            }
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(2, actions.size());
+        assertTrue(actions.get(1) == failure);
+    }
+
+    @Test
+    public void shouldRejectAsyncWhileOpen() {
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(dummyControl())
+                .withInterval(1000)
+                .withTryWindow(1000)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        breaker.setState(State.OPEN);
+
+        CompletableFuture<Boolean> result = breaker.runAsync(new AsyncAction<Boolean>() {
+            @Override
+            public CompletionStage<Boolean> get() throws Exception {
+                fail("Should not run while open");
+                return null;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        });
+
+        assertTrue(result.isCompletedExceptionally());
+
+        Throwable cause = null;
+        try {
+            result.get();
+        } catch (Exception e) {
+            cause = e.getCause();
+        }
+
+        assertTrue(cause instanceof RejectedExecutionException);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveInterval() {
+        CircuitBreaker.builder().withControl(dummyControl()).withInterval(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveTryWindow() {
+        CircuitBreaker.builder().withControl(dummyControl()).withTryWindow(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositivePrecision() {
+        CircuitBreaker.builder().withControl(dummyControl()).withPrecision(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullClock() {
+        CircuitBreaker.builder().withClock(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullControl() {
+        CircuitBreaker.builder().withControl(null);
+    }
+
+    @Test
+    public void shouldBuildOnlyOnce() {
+        CircuitBreaker.Builder builder = CircuitBreaker.builder().withControl(dummyControl());
+        CircuitBreaker breaker = builder.build();
+
+        ScheduledFuture<?> future = (ScheduledFuture<?>) TestUtil.getAttribute("switchFuture", breaker);
+
+        assertNotNull(future);
+
+        assertTrue(breaker == builder.build());
+        assertTrue(future == TestUtil.getAttribute("switchFuture", breaker));
+    }
+
+    @Test
+    public void shouldBuildWithDefaultControl() {
+        CircuitBreaker breaker = CircuitBreaker.builder().build();
+
+        assertNotNull(breaker);
+        assertNotNull(breaker.getControl());
+        assertTrue(breaker.getControl() instanceof OnOffCircuitControl);
+    }
+
+    @Test
+    public void shouldShutdown() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).build();
+
+        breaker.shutdown();
+
+        assertTrue(((ScheduledFuture<?>) TestUtil.getAttribute("switchFuture", breaker)).isCancelled());
+    }
+
+    @Test
+    public void shouldShareSchedulerByDefault() {
+        CircuitBreaker first = CircuitBreaker.builder().build();
+        CircuitBreaker second = CircuitBreaker.builder().build();
+
+        assertTrue(TestUtil.getAttribute("pool", first) == Schedulers.shared());
+        assertTrue(TestUtil.getAttribute("pool", second) == Schedulers.shared());
+        assertTrue(TestUtil.getAttribute("pool", first.getControl()) == Schedulers.shared());
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void shouldUseGivenScheduler() {
+        ScheduledExecutorService scheduler = Schedulers.newScheduler(1, "test");
+        CircuitBreaker breaker = CircuitBreaker.builder().withScheduler(scheduler).build();
+
+        assertTrue(TestUtil.getAttribute("pool", breaker) == scheduler);
+        assertTrue(TestUtil.getAttribute("pool", breaker.getControl()) == scheduler);
+
+        breaker.shutdown();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void shouldShutdownDefaultControl() {
+        CircuitBreaker breaker = CircuitBreaker.builder().build();
+
+        ScheduledFuture<?> collectorFuture = (ScheduledFuture<?>) TestUtil.getAttribute("collectorFuture", breaker.getControl());
+
+        breaker.shutdown();
+
+        assertTrue(collectorFuture.isCancelled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullScheduler() {
+        CircuitBreaker.builder().withScheduler(null);
+    }
+
+    @Test
+    public void shouldTimeOutHungActions() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(countingControl(failures)).withTimeout(50).build();
+
+        try {
+            breaker.run(new Action<Object>() {
+                @Override
+                public Object get() throws Exception {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean isValid(Object result, Exception e) {
+                    return e == null;
+                }
+            });
+
+            fail("Should have timed out");
+        } catch (CallTimeoutException e) {
+            assertEquals(1, failures.get());
+        }
+
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldRunWithinTimeout() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(countingControl(failures))
+                .withTimeout(1000).withExecutor(executor).build();
+
+        assertEquals("ok", breaker.run(new Action<String>() {
+            @Override
+            public String get() {
+                return "ok";
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                return e == null;
+            }
+        }));
+
+        try {
+            breaker.run(new Action<Object>() {
+                @Override
+                public Object get() throws Exception {
+                    throw new IllegalStateException("boom");
+                }
+
+                @Override
+                public boolean isValid(Object result, Exception e) {
+                    return e == null;
+                }
+            });
+
+            fail("Should have failed");
+        } catch (ExecutionException e) {
+            assertFalse(e instanceof CallTimeoutException);
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+
+        assertEquals(1, failures.get());
+        assertEquals(1000, breaker.getTimeout());
+
+        breaker.shutdown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldRejectCallsRefusedByExecutor() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withControl(countingControl(failures))
+                .withPrecision(Integer.MAX_VALUE)
+                .withTimeout(1000)
+                .withExecutor(executor)
+                .withMaxConcurrency(1)
+                .withHalfOpenPermits(1, 0.5)
+                .build();
+
+        breaker.setState(State.HALF_OPEN);
+
+        Action<String> action = blockingAction(new CountDownLatch(1), new CountDownLatch(0));
+
+        try {
+            breaker.run(action);
+            fail("Should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertFalse(e instanceof BreakerOpenException);
+        }
+
+        Result<String> result = breaker.tryRun(action);
+        assertTrue(result.isRejected());
+        assertFalse(result.getRejection() instanceof BreakerOpenException);
+
+        assertEquals("fallback", breaker.run(action, new Fallback<String>() {
+            @Override
+            public String get(RejectedExecutionException rejection) {
+                return rejection instanceof BreakerOpenException ? "open" : "fallback";
+            }
+        }));
+
+        assertEquals(0, failures.get());
+        assertEquals(0, breaker.getInFlight());
+        assertNull(breaker.getTrialVerdict());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldUseSharedExecutorByDefault() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withTimeout(100).build();
+
+        assertTrue(TestUtil.getAttribute("executor", breaker) == Schedulers.executor());
+
+        breaker.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveTimeout() {
+        CircuitBreaker.builder().withTimeout(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullExecutor() {
+        CircuitBreaker.builder().withExecutor(null);
+    }
+
+    @Test
+    public void shouldRejectCallsOverMaxConcurrency() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withMaxConcurrency(1).build();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    breaker.run(blockingAction(started, release));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        holder.start();
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        assertEquals(1, breaker.getInFlight());
+
+        try {
+            breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+            fail("Should have been rejected");
+        } catch (BulkheadFullException e) {
+            assertEquals(1, breaker.getBulkheadRejections());
+            assertEquals(0, breaker.getOpenRejections());
+        }
+
+        release.countDown();
+        holder.join(1000);
+
+        assertEquals(0, breaker.getInFlight());
+        assertEquals("done", breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0))));
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldWaitForPermitUpToMaxWait() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withMaxConcurrency(1, 2000).build();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    breaker.run(blockingAction(started, release));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        holder.start();
+
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                release.countDown();
+            }
+        });
+        releaser.start();
+
+        assertEquals("done", breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0))));
+        assertEquals(0, breaker.getBulkheadRejections());
+
+        holder.join(1000);
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldRejectAsyncCallsOverMaxConcurrency() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withMaxConcurrency(1).build();
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = breaker.runAsync(asyncAction(pending));
+        CompletableFuture<String> second = breaker.runAsync(asyncAction(CompletableFuture.completedFuture("other")));
+
+        try {
+            second.get();
+            fail("Should have been rejected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof BulkheadFullException);
+        }
+
+        pending.complete("done");
+
+        assertEquals("done", first.get());
+        assertEquals(0, breaker.getInFlight());
+        assertEquals(1, breaker.getBulkheadRejections());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldFailAsyncCallsReturningNullStage() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withControl(dummyControl())
+                .withPrecision(Integer.MAX_VALUE)
+                .withMaxConcurrency(1)
+                .withHalfOpenPermits(1, 0.5)
+                .build();
+
+        breaker.setState(State.HALF_OPEN);
+
+        CompletableFuture<String> result = breaker.runAsync(asyncAction(null));
+
+        try {
+            result.get();
+            fail("Should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NullPointerException);
+        }
+
+        assertEquals(0, breaker.getInFlight());
+        assertEquals(Boolean.FALSE, breaker.getTrialVerdict());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldReportTransitionsAndRejectionsToEvents() throws Exception {
+        final List<String> events = Collections.synchronizedList(new LinkedList<String>());
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withControl(dummyControl())
+                .withMaxConcurrency(1)
+                .withEvents(new BreakerEvents() {
+                    @Override
+                    public void transition(State from, State to, double score) {
+                        events.add(from + "->" + to);
+                    }
+
+                    @Override
+                    public void evaluation(double score, long samples, boolean complete, boolean open) {
+                    }
+
+                    @Override
+                    public void rejection(RejectedExecutionException rejection) {
+                        events.add(rejection.getMessage());
+                    }
+                })
+                .build();
+
+        breaker.setState(State.OPEN);
+        breaker.setState(State.OPEN);
+        breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertEquals("Breaker is open", events.get(1));
+        assertEquals(1, breaker.getOpenRejections());
+
+        breaker.setState(State.CLOSED);
+
+        assertEquals(3, events.size());
+        assertEquals("CLOSED->OPEN", events.get(0));
+        assertEquals("OPEN->CLOSED", events.get(2));
+
+        breaker.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullEvents() {
+        CircuitBreaker.builder().withEvents(null);
+    }
+
+    @Test
+    public void shouldCountOpenRejectionsSeparately() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withMaxConcurrency(1).build();
+        breaker.setState(State.OPEN);
+
+        try {
+            breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+            fail("Should have been rejected");
+        } catch (RejectedExecutionException e) {
+            assertFalse(e instanceof BulkheadFullException);
+        }
+
+        assertEquals(1, breaker.getOpenRejections());
+        assertEquals(0, breaker.getBulkheadRejections());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldRejectCallsOverAdaptiveLimit() throws Exception {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withInitialLimit(1).withLimits(1, 1).build();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(control).build();
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        assertEquals(1, breaker.getLimit());
+
+        CompletableFuture<String> first = breaker.runAsync(asyncAction(pending));
+        CompletableFuture<String> second = breaker.runAsync(asyncAction(CompletableFuture.completedFuture("other")));
+
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(1, breaker.getBulkheadRejections());
+
+        pending.complete("done");
+
+        assertEquals("done", first.get());
+        assertEquals("other", breaker.runAsync(asyncAction(CompletableFuture.completedFuture("other"))).get());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldCapAdaptiveLimitWithMaxConcurrency() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withInitialLimit(50).build();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(control).withMaxConcurrency(10).build();
+
+        assertEquals(10, breaker.getLimit());
+
+        breaker.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveMaxConcurrency() {
+        CircuitBreaker.builder().withMaxConcurrency(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeMaxWait() {
+        CircuitBreaker.builder().withMaxConcurrency(1, -1);
+    }
+
+    @Test
+    public void shouldCallFallbackWhenOpen() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).build();
+        breaker.setState(State.OPEN);
+
+        final List<RejectedExecutionException> rejections = new LinkedList<>();
+
+        String result = breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)), new Fallback<String>() {
+            @Override
+            public String get(RejectedExecutionException rejection) {
+                rejections.add(rejection);
+                return "fallback";
+            }
+        });
+
+        assertEquals("fallback", result);
+        assertTrue(rejections.get(0) instanceof BreakerOpenException);
+        assertEquals(1, breaker.getOpenRejections());
+
+        breaker.setState(State.CLOSED);
+
+        assertEquals("done", breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)), new Fallback<String>() {
+            @Override
+            public String get(RejectedExecutionException rejection) {
+                return "fallback";
+            }
+        }));
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldCallFallbackWhenBulkheadIsFull() throws Exception {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withInitialLimit(1).withLimits(1, 1).build();
+        final CircuitBreaker breaker = CircuitBreaker.builder().withControl(control).build();
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+
+        breaker.runAsync(asyncAction(pending));
+
+        assertTrue(breaker.run(new Action<RejectedExecutionException>() {
+            @Override
+            public RejectedExecutionException get() {
+                return null;
+            }
+
+            @Override
+            public boolean isValid(RejectedExecutionException result, Exception e) {
+                return e == null;
+            }
+        }, new Fallback<RejectedExecutionException>() {
+            @Override
+            public RejectedExecutionException get(RejectedExecutionException rejection) {
+                return rejection;
+            }
+        }) instanceof BulkheadFullException);
+
+        pending.complete("done");
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldThrowPreallocatedRejections() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withStacklessRejections(true).build();
+        breaker.setState(State.OPEN);
+
+        RejectedExecutionException first = null;
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+                fail("Should have been rejected");
+            } catch (BreakerOpenException e) {
+                if (first == null) first = e;
+
+                assertTrue(e == first);
+                assertEquals("Breaker is open", e.getMessage());
+                assertEquals(0, e.getStackTrace().length);
+            }
+        }
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldNotShareRejectionsBetweenBreakers() throws Exception {
+        CircuitBreaker first = CircuitBreaker.builder().withControl(dummyControl()).withStacklessRejections(true).build();
+        CircuitBreaker second = CircuitBreaker.builder().withControl(dummyControl()).withStacklessRejections(true).build();
+        first.setState(State.OPEN);
+        second.setState(State.OPEN);
+
+        Result<String> rejected = first.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertTrue(rejected == first.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0))));
+        assertFalse(rejected == second.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0))));
+
+        try {
+            try (AutoCloseable resource = failingResource()) {
+                first.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+            }
+            fail("Should have been rejected");
+        } catch (BreakerOpenException e) {
+            assertEquals(1, e.getSuppressed().length);
+        }
+
+        try {
+            second.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+            fail("Should have been rejected");
+        } catch (BreakerOpenException e) {
+            assertEquals(0, e.getSuppressed().length);
+        }
+
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    public void shouldThrowFreshRejectionsByDefault() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).build();
+        breaker.setState(State.OPEN);
+
+        try {
+            breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+            fail("Should have been rejected");
+        } catch (BreakerOpenException e) {
+            assertEquals("Breaker is open", e.getMessage());
+            assertTrue(e.getStackTrace().length > 0);
+        }
+
+        breaker.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullFallback() throws Exception {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).build();
+
+        try {
+            breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0)), null);
+        } finally {
+            breaker.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldTryRunWithoutThrowing() {
+        final AtomicInteger failures = new AtomicInteger();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(countingControl(failures)).build();
+
+        Result<String> success = breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertTrue(success.isSuccess());
+        assertEquals("done", success.getValue());
+
+        final IllegalStateException cause = new IllegalStateException();
+        Result<String> failure = breaker.tryRun(new Action<String>() {
+            @Override
+            public String get() {
+                throw cause;
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                return e == null;
+            }
+        });
+
+        assertTrue(failure.isFailure());
+        assertTrue(failure.getFailure() == cause);
+        assertEquals(1, failures.get());
+
+        breaker.setState(State.OPEN);
+
+        Result<String> rejected = breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertTrue(rejected.isRejected());
+        assertTrue(rejected.getRejection() instanceof BreakerOpenException);
+        assertEquals("Breaker is open", rejected.getRejection().getMessage());
+        assertEquals(1, breaker.getOpenRejections());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldIgnoreTrialResultsFromEarlierHalfOpenPeriod() throws Exception {
+        final CircuitBreaker breaker = CircuitBreaker.builder()
+                .withControl(dummyControl())
+                .withPrecision(Integer.MAX_VALUE)
+                .withHalfOpenPermits(1, 0.5)
+                .build();
+
+        breaker.setState(State.HALF_OPEN);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        final Action<String> action = blockingAction(started, release);
+
+        Thread late = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                breaker.tryRun(action);
+            }
+        });
+        late.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        breaker.setState(State.OPEN);
+        breaker.setState(State.HALF_OPEN);
+
+        release.countDown();
+        late.join(5000);
+
+        assertNull(breaker.getTrialVerdict());
+        assertEquals("done", breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0))).getValue());
+        assertEquals(Boolean.TRUE, breaker.getTrialVerdict());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldTryRunTrialCalls() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withHalfOpenPermits(1, 0.5).build();
+        breaker.setState(State.HALF_OPEN);
+
+        assertTrue(breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0))).isSuccess());
+        assertTrue(breaker.getTrialVerdict());
+
+        Result<String> rejected = breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertEquals("Breaker is half open", rejected.getRejection().getMessage());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldValidateTrialCallsOnce() throws Exception {
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger validations = new AtomicInteger();
+
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(countingControl(failures)).withHalfOpenPermits(1, 0.5).build();
+        breaker.setState(State.HALF_OPEN);
+
+        breaker.run(new Action<String>() {
+            @Override
+            public String get() {
+                return "done";
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                validations.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertEquals(1, validations.get());
+        assertEquals(1, failures.get());
+        assertEquals(Boolean.FALSE, breaker.getTrialVerdict());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldRegisterInterruptedTrialCallAsFailure() {
+        final AtomicInteger failures = new AtomicInteger();
+
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .withControl(countingControl(failures))
+                .withTimeout(5000)
+                .withHalfOpenPermits(1, 0.5)
+                .build();
+        breaker.setState(State.HALF_OPEN);
+
+        Thread.currentThread().interrupt();
+
+        try {
+            breaker.run(blockingAction(new CountDownLatch(1), new CountDownLatch(1)));
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InterruptedException);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertEquals(1, failures.get());
+        assertEquals(Boolean.FALSE, breaker.getTrialVerdict());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldTryRunWithTimeout() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withTimeout(20).build();
+
+        Result<String> result = breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(1)));
+
+        assertTrue(result.isFailure());
+        assertTrue(result.getFailure() instanceof CallTimeoutException);
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldRejectWhileParentIsOpen() throws Exception {
+        CircuitBreaker parent = CircuitBreaker.builder().build();
+        CircuitBreaker child = CircuitBreaker.builder().withParent(parent).build();
+
+        OnOffCircuitControl childControl = (OnOffCircuitControl) child.getControl();
+
+        assertTrue(child.getParent() == parent);
+        assertTrue(childControl.getParent() == parent.getControl());
+
+        assertEquals("done", child.run(blockingAction(new CountDownLatch(1), new CountDownLatch(0))));
+
+        parent.setState(State.OPEN);
+
+        assertTrue(child.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0))).isRejected());
+        assertEquals(1, child.getOpenRejections());
+
+        child.shutdown();
+        parent.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireOnOffParentControlForDefaultControl() {
+        CircuitBreaker parent = CircuitBreaker.builder().withControl(dummyControl()).build();
+
+        try {
+            CircuitBreaker.builder().withParent(parent).build();
+        } finally {
+            parent.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldPublishTransitions() throws Exception {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder().withWindowSize(10).withMinSampleSize(5).build();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(control).build();
+
+        final List<StateTransition> transitions = Collections.synchronizedList(new LinkedList<StateTransition>());
+        final CountDownLatch delivered = new CountDownLatch(2);
+
+        breaker.addListener(new StateListener() {
+            @Override
+            public void onTransition(StateTransition transition) {
+                transitions.add(transition);
+                delivered.countDown();
+            }
+        });
+
+        for (int i = 0; i < 10; i++)
+            breaker.tryRun(new Action<String>() {
+                @Override
+                public String get() {
+                    throw new IllegalStateException();
+                }
+
+                @Override
+                public boolean isValid(String result, Exception e) {
+                    return e == null;
+                }
+            });
+
+        breaker.setState(State.OPEN);
+        breaker.setState(State.OPEN);
+        breaker.setState(State.HALF_OPEN);
+
+        assertTrue(delivered.await(1, TimeUnit.SECONDS));
+        assertEquals(2, transitions.size());
+
+        StateTransition opened = transitions.get(0);
+
+        assertEquals(State.CLOSED, opened.getFrom());
+        assertEquals(State.OPEN, opened.getTo());
+        assertEquals(0, opened.getScore(), 0.0001);
+        assertTrue(opened.getBreaker() == breaker);
+        assertEquals(State.HALF_OPEN, transitions.get(1).getTo());
+        assertEquals(0, breaker.getDroppedEvents());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldNotBlockOnSlowListeners() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService notifier = Executors.newSingleThreadExecutor();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).withEventBufferSize(2)
+                .withNotifier(notifier).build();
+
+        breaker.addListener(new StateListener() {
+            @Override
+            public void onTransition(StateTransition transition) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        for (int i = 0; i < 10; i++)
+            breaker.setState(i % 2 == 0 ? State.OPEN : State.CLOSED);
+
+        assertTrue(breaker.getDroppedEvents() > 0);
+
+        release.countDown();
+        breaker.shutdown();
+        notifier.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullStateListener() {
+        CircuitBreaker.builder().withControl(dummyControl()).build().addListener(null);
+    }
+
+    @Test
+    public void shouldTakeSnapshots() {
+        ManualClock clock = new ManualClock(1000 * 1000);
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).withMinSampleSize(1).startWorkers(false).build();
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(control).withClock(clock).build();
+
+        breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+        clock.advance(1000);
+        breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+        breaker.tryRun(new Action<String>() {
+            @Override
+            public String get() {
+                throw new IllegalStateException();
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                return e == null;
+            }
+        });
+
+        breaker.setState(State.OPEN);
+        clock.advance(250);
+        breaker.tryRun(blockingAction(new CountDownLatch(1), new CountDownLatch(0)));
+
+        BreakerSnapshot snapshot = breaker.snapshot();
+
+        assertEquals(State.OPEN, snapshot.getState());
+        assertEquals(250, snapshot.getTimeInState());
+        assertEquals(1, snapshot.getOpenRejections());
+        assertEquals(0, snapshot.getBulkheadRejections());
+        assertTrue(Double.isNaN(snapshot.getScore()));
+        assertEquals(2, snapshot.getBuckets().size());
+        assertEquals(1, snapshot.getBuckets().get(0).getSuccesses());
+        assertEquals(1, snapshot.getBuckets().get(1).getFailures());
+        assertEquals(1001 * 1000, snapshot.getBuckets().get(1).getStart());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldSnapshotControlsWithoutBuckets() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(dummyControl()).build();
+
+        BreakerSnapshot snapshot = breaker.snapshot();
+
+        assertEquals(State.CLOSED, snapshot.getState());
+        assertTrue(snapshot.getBuckets().isEmpty());
+        assertTrue(Double.isNaN(snapshot.getScore()));
+
+        breaker.shutdown();
+    }
+
+    private Action<String> blockingAction(final CountDownLatch started, final CountDownLatch release) {
+        return new Action<String>() {
+            @Override
+            public String get() throws Exception {
+                started.countDown();
+                release.await();
+                return "done";
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                return e == null;
+            }
+        };
+    }
+
+    private AsyncAction<String> asyncAction(final CompletionStage<String> stage) {
+        return new AsyncAction<String>() {
+            @Override
+            public CompletionStage<String> get() {
+                return stage;
+            }
+
+            @Override
+            public boolean isValid(String result, Exception e) {
+                return e == null;
+            }
+        };
+    }
+
+    private CircuitControl countingControl(final AtomicInteger failures) {
+        return new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+                if (!action.isValid(data, null)) failures.incrementAndGet();
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+                if (!action.isValid(null, e)) failures.incrementAndGet();
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+    }
+
+    private CircuitControl dummyControl() {
+        return new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+    }
+
+    private AutoCloseable failingResource() {
+        return new AutoCloseable() {
+            @Override
+            public void close() throws Exception {
+                throw new IllegalStateException("close failed");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.mercadolibre.resilience.breaker;
+
+import com.mercadolibre.resilience.breaker.control.CircuitControl;
+import com.mercadolibre.resilience.breaker.control.CountWindowCircuitControl;
+import com.mercadolibre.resilience.breaker.util.TestUtil;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.Assert.*;
+
+public class EventSwitchTest {
+
+    private static Action<Boolean> action(final boolean valid) {
+        return new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return valid;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result;
+            }
+        };
+    }
+
+    private static void run(CircuitBreaker breaker, boolean valid, int times) {
+        for (int i = 0; i < times; i++) {
+            try {
+                breaker.run(action(valid));
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static CountWindowCircuitControl control() {
+        return CountWindowCircuitControl.builder().withWindowSize(10).withMinSampleSize(5).build();
+    }
+
+    @Test
+    public void shouldOpenAsSoonAsVerdictChanges() {
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control())
+                .withInterval(Integer.MAX_VALUE)
+                .withTryWindow(1000)
+                .eventDriven(true)
+                .build();
+
+        run(breaker, false, 4);
+
+        assertEquals(State.CLOSED, breaker.getState());
+
+        run(breaker, false, 1);
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldHalfOpenAfterIntervalAndCloseOnVerdict() {
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control())
+                .withInterval(10)
+                .withTryWindow(Integer.MAX_VALUE)
+                .eventDriven(true)
+                .build();
+
+        run(breaker, false, 5);
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        for (int i = 0; i < 100 && breaker.getState() == State.OPEN; i++)
+            LockSupport.parkNanos(10000000);
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        run(breaker, true, 9);
+
+        assertEquals(State.CLOSED, breaker.getState());
+
+        breaker.shutdown();
+    }
+
+    @Test
+    public void shouldNotPoll() {
+        CircuitBreaker breaker = CircuitBreaker.builder().withControl(control()).eventDriven(true).build();
+
+        assertNull(TestUtil.getAttribute("switchFuture", breaker));
+
+        breaker.shutdown();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonObservableControl() {
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return true;
+            }
+        };
+
+        CircuitBreaker.builder().withControl(control).eventDriven(true).build();
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.mercadolibre.resilience.breaker;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class ResultTest {
+
+    @Test
+    public void shouldHoldSuccess() {
+        Result<String> result = Result.success("ok");
+
+        assertTrue(result.isSuccess());
+        assertEquals(Result.Kind.SUCCESS, result.getKind());
+        assertEquals("ok", result.getValue());
+        assertEquals("ok", result.getOrElse("other"));
+        assertNull(result.getFailure());
+        assertNull(result.getRejection());
+    }
+
+    @Test
+    public void shouldHoldFailure() {
+        IllegalStateException cause = new IllegalStateException();
+        Result<String> result = Result.failure(cause);
+
+        assertTrue(result.isFailure());
+        assertTrue(result.getFailure() == cause);
+        assertNull(result.getValue());
+        assertNull(result.getRejection());
+        assertEquals("other", result.getOrElse("other"));
+    }
+
+    @Test
+    public void shouldWrapOtherRejections() {
+        RejectedExecutionException rejection = new RejectedExecutionException("custom");
+        Result<String> result = Result.rejected(rejection);
+
+        assertTrue(result.isRejected());
+        assertTrue(result.getRejection() == rejection);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullFailure() {
+        Result.failure(null);
+    }
+
+}
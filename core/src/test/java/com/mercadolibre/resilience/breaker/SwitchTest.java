@@ -1,10 +1,12 @@
 package com.mercadolibre.resilience.breaker;
 
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
 import com.mercadolibre.resilience.breaker.control.CircuitControl;
+import com.mercadolibre.resilience.breaker.control.CountWindowCircuitControl;
 import org.junit.Test;
 
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.Assert.*;
 
@@ -35,9 +37,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(10000)
                 .withTryWindow(10000)
                 .withPrecision(Integer.MAX_VALUE)
@@ -74,9 +79,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(1)
                 .withTryWindow(1)
                 .withPrecision(Integer.MAX_VALUE)
@@ -90,7 +98,7 @@ public class SwitchTest {
 
         assertEquals(State.OPEN, breaker.getState());
 
-        LockSupport.parkNanos(2000000);
+        clock.advance(2);
 
         sw.run();
 
@@ -124,9 +132,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(1)
                 .withTryWindow(100)
                 .withPrecision(Integer.MAX_VALUE)
@@ -140,7 +151,7 @@ public class SwitchTest {
 
         assertEquals(State.OPEN, breaker.getState());
 
-        LockSupport.parkNanos(2000000);
+        clock.advance(2);
 
         sw.run();
 
@@ -177,9 +188,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(Integer.MAX_VALUE)
                 .withTryWindow(1)
                 .withPrecision(Integer.MAX_VALUE)
@@ -224,9 +238,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(1)
                 .withTryWindow(1)
                 .withPrecision(Integer.MAX_VALUE)
@@ -240,13 +257,13 @@ public class SwitchTest {
 
         assertEquals(State.OPEN, breaker.getState());
 
-        LockSupport.parkNanos(2000000);
+        clock.advance(2);
 
         sw.run();
 
         assertEquals(State.HALF_OPEN, breaker.getState());
 
-        LockSupport.parkNanos(2000000);
+        clock.advance(2);
 
         sw.run();
 
@@ -279,9 +296,12 @@ public class SwitchTest {
             }
         };
 
+        ManualClock clock = new ManualClock();
+
         CircuitBreaker breaker = CircuitBreaker
                 .builder()
                 .withControl(control)
+                .withClock(clock)
                 .withInterval(1)
                 .withTryWindow(100)
                 .withPrecision(Integer.MAX_VALUE)
@@ -295,15 +315,164 @@ public class SwitchTest {
 
         assertEquals(State.OPEN, breaker.getState());
 
-        LockSupport.parkNanos(2000000);
+        clock.advance(2);
+
+        sw.run();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        sw.run();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    public void shouldCloseOnPassedTrial() throws ExecutionException {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder().withWindowSize(10).withMinSampleSize(1).build();
+
+        ManualClock clock = new ManualClock();
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withClock(clock)
+                .withInterval(1)
+                .withTryWindow(100)
+                .withPrecision(Integer.MAX_VALUE)
+                .withHalfOpenPermits(2, 0.5)
+                .build();
+
+        breaker.run(action(false));
+
+        Switch sw = new Switch(breaker);
+
+        sw.run();
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        clock.advance(2);
+        sw.run();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
 
+        breaker.run(action(true));
         sw.run();
 
         assertEquals(State.HALF_OPEN, breaker.getState());
 
+        breaker.run(action(true));
+        sw.run();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(control.shouldClose());
+        assertEquals(0, control.failureCount());
+    }
+
+    @Test
+    public void shouldOpenOnFailedTrial() throws ExecutionException {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder().withWindowSize(10).withMinSampleSize(1).build();
+
+        ManualClock clock = new ManualClock();
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withClock(clock)
+                .withInterval(1)
+                .withTryWindow(100)
+                .withPrecision(Integer.MAX_VALUE)
+                .withHalfOpenPermits(2, 0.5)
+                .build();
+
+        breaker.run(action(false));
+
+        Switch sw = new Switch(breaker);
+
+        sw.run();
+        clock.advance(2);
         sw.run();
 
         assertEquals(State.HALF_OPEN, breaker.getState());
+
+        breaker.run(action(true));
+        breaker.run(action(false));
+        sw.run();
+
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void shouldTimeStatesSetFromOutside() {
+        CircuitControl control = new CircuitControl() {
+            @Override
+            public <T> void register(Action<T> action, T data) {
+
+            }
+
+            @Override
+            public <T> void register(Action<T> action, Exception e) {
+
+            }
+
+            @Override
+            public boolean shouldOpen() {
+                return false;
+            }
+
+            @Override
+            public boolean shouldClose() {
+                return false;
+            }
+        };
+
+        ManualClock clock = new ManualClock();
+
+        CircuitBreaker breaker = CircuitBreaker
+                .builder()
+                .withControl(control)
+                .withClock(clock)
+                .withInterval(10)
+                .withTryWindow(100)
+                .withPrecision(Integer.MAX_VALUE)
+                .build();
+
+        Switch sw = new Switch(breaker);
+
+        breaker.setState(State.HALF_OPEN);
+        sw.run();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+
+        clock.advance(100);
+        sw.run();
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        breaker.setState(State.CLOSED);
+        clock.advance(100);
+        breaker.setState(State.OPEN);
+        sw.run();
+
+        assertEquals(State.OPEN, breaker.getState());
+
+        clock.advance(10);
+        sw.run();
+
+        assertEquals(State.HALF_OPEN, breaker.getState());
+    }
+
+    private static Action<Boolean> action(final boolean valid) {
+        return new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return valid;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result;
+            }
+        };
     }
 
 }
@@ -0,0 +1,90 @@
+package com.mercadolibre.resilience.breaker;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class TransitionPublisherTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+
+    private final Executor queued = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+    };
+
+    private StateTransition transition(State from, State to) {
+        return new StateTransition(null, from, to, 0, Double.NaN);
+    }
+
+    @Test
+    public void shouldDeliverInOrder() {
+        TransitionPublisher publisher = new TransitionPublisher(4, queued);
+        final List<State> received = new ArrayList<>();
+
+        publisher.addListener(new StateListener() {
+            @Override
+            public void onTransition(StateTransition transition) {
+                received.add(transition.getTo());
+            }
+        });
+
+        assertTrue(publisher.publish(transition(State.CLOSED, State.OPEN)));
+        assertTrue(publisher.publish(transition(State.OPEN, State.HALF_OPEN)));
+
+        assertEquals(1, pending.size());
+        assertTrue(received.isEmpty());
+
+        pending.remove(0).run();
+
+        assertEquals(2, received.size());
+        assertEquals(State.OPEN, received.get(0));
+        assertEquals(State.HALF_OPEN, received.get(1));
+    }
+
+    @Test
+    public void shouldDropWhenFull() {
+        TransitionPublisher publisher = new TransitionPublisher(2, queued);
+
+        assertTrue(publisher.publish(transition(State.CLOSED, State.OPEN)));
+        assertTrue(publisher.publish(transition(State.OPEN, State.HALF_OPEN)));
+        assertFalse(publisher.publish(transition(State.HALF_OPEN, State.CLOSED)));
+
+        assertEquals(1, publisher.getDropped());
+
+        pending.remove(0).run();
+
+        assertTrue(publisher.publish(transition(State.HALF_OPEN, State.CLOSED)));
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    public void shouldKeepDeliveringAfterListenerFailure() {
+        TransitionPublisher publisher = new TransitionPublisher(4, queued);
+        final List<State> received = new ArrayList<>();
+
+        publisher.addListener(new StateListener() {
+            @Override
+            public void onTransition(StateTransition transition) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        publisher.addListener(new StateListener() {
+            @Override
+            public void onTransition(StateTransition transition) {
+                received.add(transition.getTo());
+            }
+        });
+
+        publisher.publish(transition(State.CLOSED, State.OPEN));
+        pending.remove(0).run();
+
+        assertEquals(1, received.size());
+    }
+
+}
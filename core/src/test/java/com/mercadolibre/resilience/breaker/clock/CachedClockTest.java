@@ -0,0 +1,33 @@
+package com.mercadolibre.resilience.breaker.clock;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.locks.LockSupport;
+
+public class CachedClockTest {
+
+    @Test
+    public void shouldFollowSystemClock() {
+        CachedClock clock = new CachedClock(1);
+
+        try {
+            long start = clock.currentTimeMillis();
+
+            LockSupport.parkNanos(50000000);
+
+            long now = clock.currentTimeMillis();
+
+            assertTrue(now > start);
+            assertTrue(now <= System.currentTimeMillis());
+        } finally {
+            clock.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositivePrecision() {
+        new CachedClock(0);
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.mercadolibre.resilience.breaker.clock;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ManualClockTest {
+
+    @Test
+    public void shouldOnlyMoveWhenAdvanced() {
+        ManualClock clock = new ManualClock(100);
+
+        assertEquals(100, clock.currentTimeMillis());
+        assertEquals(150, clock.advance(50));
+        assertEquals(150, clock.currentTimeMillis());
+
+        clock.set(10);
+
+        assertEquals(10, clock.currentTimeMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeAdvance() {
+        new ManualClock().advance(-1);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AdaptiveLimitCircuitControlTest {
+
+    private static final long MS = 1000 * 1000;
+
+    private final Action<Boolean> action = new Action<Boolean>() {
+        @Override
+        public Boolean get() throws Exception {
+            return true;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return Boolean.TRUE.equals(result) && e == null;
+        }
+    };
+
+    @Test
+    public void shouldGrowWhileLatencyStaysLow() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withInitialLimit(10).build();
+
+        for (int i = 0; i < 100; i++)
+            control.register(action, true, 10 * MS);
+
+        assertTrue(control.getLimit() > 10);
+        assertEquals(10 * MS, control.getMinRtt());
+    }
+
+    @Test
+    public void shouldShrinkOnFailures() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder()
+                .withInitialLimit(100)
+                .withBackoffRatio(0.5)
+                .build();
+
+        control.register(action, false, 10 * MS);
+        assertEquals(50, control.getLimit());
+
+        control.register(action, new RuntimeException());
+        assertEquals(50, control.getLimit());
+
+        for (int i = 0; i < 99; i++)
+            control.register(action, true, 10 * MS);
+
+        control.register(action, new RuntimeException());
+        assertEquals(25, control.getLimit());
+    }
+
+    @Test
+    public void shouldShrinkOnLatencyInflation() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder()
+                .withInitialLimit(10)
+                .withBackoffRatio(0.5)
+                .withTolerance(2)
+                .build();
+
+        for (int i = 0; i < 10; i++)
+            control.register(action, true, (i % 2 == 0 ? 10 : 15) * MS);
+
+        int limit = control.getLimit();
+        assertTrue(limit >= 10);
+
+        for (int i = 0; i < limit; i++)
+            control.register(action, true, 30 * MS);
+
+        assertTrue(control.getLimit() < limit);
+    }
+
+    @Test
+    public void shouldNotShrinkOnSlowTail() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withInitialLimit(20).build();
+
+        for (int i = 0; i < 1000; i++)
+            control.register(action, true, (i % 10 == 0 ? 100 : 10) * MS);
+
+        assertTrue(control.getLimit() > 20);
+    }
+
+    @Test
+    public void shouldUpdateLimitConcurrently() throws InterruptedException {
+        final AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder()
+                .withInitialLimit(50)
+                .withLimits(10, 100)
+                .build();
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean failing = t == 0;
+
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++)
+                        control.register(action, !failing || i % 10 != 0, MS);
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertTrue(control.getLimit() >= 10 && control.getLimit() <= 100);
+    }
+
+    @Test
+    public void shouldStayWithinLimits() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder()
+                .withInitialLimit(5)
+                .withLimits(2, 6)
+                .build();
+
+        for (int i = 0; i < 1000; i++)
+            control.register(action, true, MS);
+
+        assertEquals(6, control.getLimit());
+
+        for (int i = 0; i < 100; i++)
+            control.register(action, false, MS);
+
+        assertEquals(2, control.getLimit());
+    }
+
+    @Test
+    public void shouldProbeMinRtt() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().withProbeInterval(3).build();
+
+        control.register(action, true, MS);
+        control.register(action, true, 5 * MS);
+        assertEquals(MS, control.getMinRtt());
+
+        control.register(action, true, 5 * MS);
+        assertEquals(5 * MS, control.getMinRtt());
+    }
+
+    @Test
+    public void shouldNeverOpen() {
+        AdaptiveLimitCircuitControl control = AdaptiveLimitCircuitControl.builder().build();
+
+        for (int i = 0; i < 100; i++)
+            control.register(action, false);
+
+        assertFalse(control.shouldOpen());
+        assertTrue(control.shouldClose());
+        assertTrue(control.isLatencyAware());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidLimits() {
+        AdaptiveLimitCircuitControl.builder().withLimits(10, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidBackoffRatio() {
+        AdaptiveLimitCircuitControl.builder().withBackoffRatio(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidTolerance() {
+        AdaptiveLimitCircuitControl.builder().withTolerance(0.5);
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.metrics.BreakerMetrics;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BatchedMetricsTest {
+
+    private static class CountingMetrics implements BreakerMetrics {
+        long successes;
+        long failures;
+        int flushes;
+
+        @Override
+        public void success(long count) {
+            successes += count;
+            flushes++;
+        }
+
+        @Override
+        public void failure(long count) {
+            failures += count;
+            flushes++;
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void insufficientData() {
+        }
+    }
+
+    @Test
+    public void shouldFlushDeltas() {
+        CountingMetrics metrics = new CountingMetrics();
+        BatchedMetrics batch = new BatchedMetrics(metrics);
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(10).addSuccess();
+        ring.acquire(10).addFailure();
+
+        batch.flush(ring, 10);
+
+        assertEquals(1, metrics.successes);
+        assertEquals(1, metrics.failures);
+
+        ring.acquire(10).addSuccess();
+        ring.acquire(11).addSuccess();
+        ring.acquire(11).addFailure();
+
+        batch.flush(ring, 11);
+
+        assertEquals(3, metrics.successes);
+        assertEquals(2, metrics.failures);
+    }
+
+    @Test
+    public void shouldNotFlushWithoutChanges() {
+        CountingMetrics metrics = new CountingMetrics();
+        BatchedMetrics batch = new BatchedMetrics(metrics);
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(10).addSuccess();
+
+        batch.flush(ring, 10);
+        batch.flush(ring, 10);
+        batch.flush(ring, 11);
+
+        assertEquals(1, metrics.successes);
+        assertEquals(1, metrics.flushes);
+    }
+
+}
@@ -0,0 +1,464 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.State;
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.metrics.BreakerEvents;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.LockSupport;
+
+public class CollectorTest extends ControlTestBase {
+
+    private final ManualClock clock = new ManualClock(System.currentTimeMillis());
+
+    private final Random random = new Random();
+
+    private void loadStats(StatsRing ring, long key, double errorRate, int size) {
+        assert errorRate >= 0 && errorRate <= 1;
+
+        Stats stats = ring.acquire(key);
+        if (stats == null) return;
+
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() < errorRate)
+                stats.addFailure();
+            else
+                stats.addSuccess();
+        }
+    }
+
+    @Test
+    public void shouldCloseOnLowErrorRate() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.open();
+
+        assertFalse(control.shouldClose());
+
+        long now = control.getTimestamp();
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 0.1, 100);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - i, 1, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+    }
+
+    @Test
+    public void shouldOpenOnHighErrorRate() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.close();
+
+        assertTrue(control.shouldClose());
+        assertFalse(control.shouldOpen());
+
+        long now = control.getTimestamp();
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 0.8, 100);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - i, 0, 100);
+
+        collector.run();
+
+        assertFalse(control.shouldClose());
+        assertTrue(control.shouldOpen());
+    }
+
+    @Test
+    public void shouldBypassWithInsufficientSamples() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.close();
+
+        assertTrue(control.shouldClose());
+
+        long now = control.getTimestamp();
+        loadStats(stats, now, 0.8, 100);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - i, 0, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+    }
+
+    @Test
+    public void shouldRemoveIncompleteLastSample() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.open();
+
+        assertFalse(control.shouldClose());
+
+        long now = control.getTimestamp();
+
+        loadStats(stats, now, 0.1, 1);
+
+        for (int i = 1; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 0.1, 100);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - i, 1, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+    }
+
+    @Test
+    public void shouldDoNothingOnEmptyChunk() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.close();
+
+        assertTrue(control.shouldClose());
+
+        long now = control.getTimestamp();
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - 1 - i, 1, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+    }
+
+    @Test
+    public void shouldBypassWithIncompleteSample() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        control.close();
+
+        assertTrue(control.shouldClose());
+        assertFalse(control.shouldOpen());
+
+        long now = control.getTimestamp();
+        loadStats(stats, now, 0.8, 100);
+
+        for (int i = 1; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 0.1, 1);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - Collector.DEFAULT_WEIGHTS.length - i, 1, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+        assertFalse(control.shouldOpen());
+    }
+
+    @Test
+    public void shouldOpenWithSubSecondBuckets() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withCollector(collector)
+                .withBucketWidth(100)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        StatsRing stats = getStats(control);
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++) {
+            loadStats(stats, control.getTimestamp(), 0.9, 100);
+            clock.advance(100);
+        }
+
+        loadStats(stats, control.getTimestamp(), 0.9, 1);
+
+        collector.run();
+
+        assertTrue(control.shouldOpen());
+    }
+
+    @Test
+    public void shouldScoreCurrentBucketBetweenRollOvers() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+
+        long now = control.getTimestamp();
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 0, 100);
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+
+        loadStats(stats, now, 1, 1000);
+
+        collector.run();
+
+        assertTrue(control.shouldOpen());
+
+        clock.advance(1000);
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++) {
+            loadStats(stats, control.getTimestamp(), 0, 10000);
+            clock.advance(1000);
+        }
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+    }
+
+    private double expectedScore(StatsRing ring, double[] weights, long now) {
+        double score = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Stats s = ring.get(now - weights.length + i);
+            score += weights[i] * (1 - s.failureCount() * 1.0 / s.count());
+        }
+
+        return score;
+    }
+
+    @Test
+    public void shouldSlideRunningSumsLikeFullScan() {
+        Collector collector = Collector.builder().withWeights(new double[]{1, 2, 3, 4, 5}).build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withCollector(collector).withClock(clock).startWorkers(false).build();
+
+        StatsRing stats = getStats(control);
+        double[] weights = collector.getWeights();
+
+        for (int i = 0; i < 30; i++) {
+            loadStats(stats, control.getTimestamp(), random.nextDouble(), 100);
+            clock.advance(1000);
+
+            collector.run();
+
+            long now = control.getTimestamp();
+            if (i >= weights.length - 1)
+                assertEquals(expectedScore(stats, weights, now), collector.getScore(), 1e-9);
+            else
+                assertTrue(Double.isNaN(collector.getScore()));
+
+            // Late calls into the bucket that just closed are picked up on the next roll-over
+            loadStats(stats, now - 1, random.nextDouble(), 10);
+        }
+    }
+
+    @Test
+    public void shouldReportEvaluations() {
+        final List<Object[]> evaluations = new ArrayList<>();
+
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withCollector(collector)
+                .withEvents(new BreakerEvents() {
+                    @Override
+                    public void transition(State from, State to, double score) {
+                    }
+
+                    @Override
+                    public void evaluation(double score, long samples, boolean complete, boolean open) {
+                        evaluations.add(new Object[]{score, samples, complete, open});
+                    }
+
+                    @Override
+                    public void rejection(RejectedExecutionException rejection) {
+                    }
+                })
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        StatsRing stats = getStats(control);
+
+        long now = control.getTimestamp();
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++)
+            loadStats(stats, now - i, 1, 100);
+
+        collector.run();
+
+        clock.advance(10 * 1000);
+        collector.run();
+
+        assertEquals(2, evaluations.size());
+
+        assertEquals(0, (Double) evaluations.get(0)[0], 1e-9);
+        assertEquals(300L, evaluations.get(0)[1]);
+        assertEquals(true, evaluations.get(0)[2]);
+        assertEquals(true, evaluations.get(0)[3]);
+
+        assertTrue(Double.isNaN((Double) evaluations.get(1)[0]));
+        assertEquals(0L, evaluations.get(1)[1]);
+        assertEquals(false, evaluations.get(1)[2]);
+        assertEquals(true, evaluations.get(1)[3]);
+    }
+
+    @Test
+    public void shouldOpenOnSlowCalls() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withCollector(collector)
+                .withSlowCallThreshold(100, 0.5)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        };
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++) {
+            for (int j = 0; j < 100; j++)
+                control.register(action, true, (j < 60 ? 200 : 10) * 1000000L);
+
+            clock.advance(1000);
+        }
+
+        collector.run();
+
+        assertTrue(control.shouldOpen());
+    }
+
+    @Test
+    public void shouldOpenOnLatencyPercentile() {
+        Collector collector = Collector.builder().build();
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withCollector(collector)
+                .withLatencyPercentile(99, 100)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return true;
+            }
+        };
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++) {
+            for (int j = 0; j < 100; j++)
+                control.register(action, true, 10 * 1000000L);
+
+            clock.advance(1000);
+        }
+
+        collector.run();
+
+        assertTrue(control.shouldClose());
+
+        for (int i = 0; i < Collector.DEFAULT_WEIGHTS.length; i++) {
+            for (int j = 0; j < 100; j++)
+                control.register(action, true, (j < 5 ? 2000 : 10) * 1000000L);
+
+            clock.advance(1000);
+        }
+
+        collector.run();
+
+        assertTrue(control.shouldOpen());
+    }
+
+    @Test
+    public void shouldStartWorkers() throws NoSuchFieldException, IllegalAccessException {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().build();
+
+        ScheduledFuture<?> collectorFuture = (ScheduledFuture<?>) getAttribute("collectorFuture", control);
+
+        assertNotNull(collectorFuture);
+
+        control.shutdown();
+
+        LockSupport.parkNanos(3000000);
+
+        assertTrue(collectorFuture.isCancelled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullWeights() {
+        Collector.builder().withWeights(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyWeights() {
+        Collector.builder().withWeights(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectTooLargeWeights() {
+        Collector.builder().withWeights(new double[121]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectAllZeroWeights() {
+        double[] weights = {0,0,0};
+        Collector.builder().withWeights(weights);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeWeight() {
+        double[] weights = {0.1,-0.4,0.4};
+        Collector.builder().withWeights(weights);
+    }
+
+    @Test
+    public void shouldBuildWithNormalizedWeights() {
+        double[] weights = {0.1, 0.3, 0.6};
+        Collector collector = Collector.builder().withWeights(weights).build();
+
+        assertNotNull(collector);
+        assertTrue(Arrays.equals(weights, collector.getWeights()));
+    }
+
+    @Test
+    public void shouldBuildWithNonNormalizedWeights() {
+        double[] weights = {1, 3, 6};
+        Collector collector = Collector.builder().withWeights(weights).build();
+
+        assertNotNull(collector);
+
+        double[] normalized = {0.1, 0.3, 0.6};
+        assertTrue(Arrays.equals(normalized, collector.getWeights()));
+    }
+
+}
@@ -1,18 +1,16 @@
 package com.mercadolibre.resilience.breaker.control;
 
-import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.concurrent.ConcurrentNavigableMap;
 
 class ControlTestBase {
 
-    @SuppressWarnings("unchecked")
-    protected ConcurrentNavigableMap<Long, Stats> getStats(OnOffCircuitControl control) {
+    protected StatsRing getStats(OnOffCircuitControl control) {
         try {
-            return (ConcurrentNavigableMap<Long, Stats>) getAttribute("stats", control);
+            return (StatsRing) getAttribute("stats", control);
         } catch (NoSuchFieldException | IllegalAccessException e ) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,114 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CountWindowCircuitControlTest {
+
+    private final Action<Boolean> action = new Action<Boolean>() {
+        @Override
+        public Boolean get() throws Exception {
+            return true;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return Boolean.TRUE.equals(result) && e == null;
+        }
+    };
+
+    @Test
+    public void shouldStayClosedWithoutEnoughSamples() {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder()
+                .withWindowSize(10)
+                .withMinSampleSize(5)
+                .build();
+
+        for (int i = 0; i < 4; i++)
+            control.register(action, false);
+
+        assertTrue(control.shouldClose());
+        assertEquals(4, control.failureCount());
+    }
+
+    @Test
+    public void shouldOpenOnHighFailureRate() {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder()
+                .withWindowSize(10)
+                .withMinSampleSize(5)
+                .build();
+
+        for (int i = 0; i < 5; i++)
+            control.register(action, new RuntimeException());
+
+        assertTrue(control.shouldOpen());
+        assertFalse(control.shouldClose());
+    }
+
+    @Test
+    public void shouldForgetOldOutcomes() {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder()
+                .withWindowSize(70)
+                .withMinSampleSize(70)
+                .build();
+
+        for (int i = 0; i < 70; i++)
+            control.register(action, false);
+
+        assertTrue(control.shouldOpen());
+        assertEquals(70, control.failureCount());
+
+        for (int i = 0; i < 60; i++)
+            control.register(action, true);
+
+        assertEquals(10, control.failureCount());
+        assertTrue(control.shouldClose());
+    }
+
+    @Test
+    public void shouldBuildOnlyOnce() {
+        CountWindowCircuitControl.Builder builder = CountWindowCircuitControl.builder();
+
+        assertTrue(builder.build() == builder.build());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMinSampleSizeLargerThanWindow() {
+        CountWindowCircuitControl.builder().withWindowSize(10).withMinSampleSize(11).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveWindowSize() {
+        CountWindowCircuitControl.builder().withWindowSize(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveMinSampleSize() {
+        CountWindowCircuitControl.builder().withMinSampleSize(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeMinScore() {
+        CountWindowCircuitControl.builder().withMinScore(-1);
+    }
+
+    @Test
+    public void shouldExposeScore() {
+        CountWindowCircuitControl control = CountWindowCircuitControl.builder()
+                .withWindowSize(10)
+                .withMinSampleSize(4)
+                .build();
+
+        control.register(action, true);
+        control.register(action, false);
+
+        assertTrue(Double.isNaN(control.getScore()));
+
+        control.register(action, true);
+        control.register(action, true);
+
+        assertEquals(0.75, control.getScore(), 0.0001);
+    }
+
+}
@@ -0,0 +1,642 @@
+package com.mercadolibre.resilience.breaker.control;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.metrics.BreakerMetrics;
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import com.mercadolibre.resilience.breaker.stats.SimpleStats;
+import com.mercadolibre.resilience.breaker.stats.Stats;
+import com.mercadolibre.resilience.breaker.stats.StatsRing;
+import com.mercadolibre.resilience.breaker.stats.StripedStats;
+import com.mercadolibre.resilience.breaker.util.TestUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OnOffCircuitControlTest extends ControlTestBase {
+
+    private final ManualClock clock = new ManualClock(System.currentTimeMillis());
+
+    @Test
+    public void shouldRegisterSuccess() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        long now = control.getTimestamp();
+
+        control.register(action, true);
+
+        Stats s = getStats(control).get(now);
+
+        assertNotNull(s);
+
+        assertEquals(1, s.successCount());
+        assertEquals(0, s.failureCount());
+    }
+
+    @Test
+    public void shouldRegisterFailure() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return false;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        long now = control.getTimestamp();
+
+        control.register(action, false);
+
+        Stats s = getStats(control).get(now);
+
+        assertNotNull(s);
+
+        assertEquals(0, s.successCount());
+        assertEquals(1, s.failureCount());
+    }
+
+    @Test
+    public void shouldRegisterException() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return Boolean.TRUE.equals(result) && e == null;
+            }
+        };
+
+        long now = control.getTimestamp();
+
+        control.register(action, new RuntimeException());
+
+        Stats s = getStats(control).get(now);
+
+        assertNotNull(s);
+
+        assertEquals(0, s.successCount());
+        assertEquals(1, s.failureCount());
+    }
+
+    @Test
+    public void shouldGroupRegisteredData() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        for (int i = 0; i < 1000; i++)
+            control.register(action, true);
+
+        StatsRing stats = getStats(control);
+        long now = control.getTimestamp();
+
+        long size = 0;
+        for (long key = now - stats.capacity() + 1; key <= now; key++) {
+            Stats s = stats.get(key);
+            if (s != null && s.count() > size)
+                size = s.count();
+        }
+
+        assertTrue(size > 1);
+    }
+
+    @Test
+    public void shouldRollBucketsWithClock() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        long first = control.getTimestamp();
+        control.register(action, true);
+
+        clock.advance(1000);
+
+        long second = control.getTimestamp();
+        control.register(action, false);
+
+        assertEquals(first + 1, second);
+        assertEquals(1, getStats(control).get(first).successCount());
+        assertEquals(1, getStats(control).get(second).failureCount());
+        assertEquals(0, getStats(control).get(second).successCount());
+    }
+
+    @Test
+    public void shouldRollSubSecondBuckets() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withBucketWidth(250)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        long first = control.getTimestamp();
+
+        clock.advance(250);
+
+        assertEquals(first + 1, control.getTimestamp());
+        assertEquals(250, control.getBucketWidth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveBucketWidth() {
+        OnOffCircuitControl.builder().withBucketWidth(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullMetrics() {
+        OnOffCircuitControl.builder().withMetrics(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveSlowCallThreshold() {
+        OnOffCircuitControl.builder().withSlowCallThreshold(0, 0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidSlowCallRate() {
+        OnOffCircuitControl.builder().withSlowCallThreshold(100, 1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidLatencyPercentile() {
+        OnOffCircuitControl.builder().withLatencyPercentile(0, 100);
+    }
+
+    @Test
+    public void shouldTrackLatencyOnlyWhenConfigured() {
+        OnOffCircuitControl plain = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+        OnOffCircuitControl timed = OnOffCircuitControl.builder().withSlowCallThreshold(100, 0.5).withClock(clock).startWorkers(false).build();
+
+        assertFalse(plain.isLatencyAware());
+        assertFalse(getStats(plain).tracksLatency());
+        assertTrue(timed.isLatencyAware());
+        assertTrue(getStats(timed).tracksLatency());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullScheduler() {
+        OnOffCircuitControl.builder().withScheduler(null);
+    }
+
+    @Test
+    public void shouldNotifyVerdictChanges() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        final AtomicInteger changes = new AtomicInteger();
+        control.addListener(new ControlListener() {
+            @Override
+            public void onVerdictChange(CircuitControl control) {
+                changes.incrementAndGet();
+            }
+        });
+
+        control.close();
+
+        assertEquals(0, changes.get());
+
+        control.open();
+        control.open();
+
+        assertEquals(1, changes.get());
+
+        control.close();
+
+        assertEquals(2, changes.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullClock() {
+        OnOffCircuitControl.builder().withClock(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeMinScore() {
+        OnOffCircuitControl.builder().withMinScore(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeMinSampleSize() {
+        OnOffCircuitControl.builder().withMinSampleSize(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullCollector() {
+        OnOffCircuitControl.builder().withCollector(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullStatsFactory() {
+        OnOffCircuitControl.builder().withStatsFactory(null);
+    }
+
+    @Test
+    public void shouldRegisterWithStripedStats() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withStatsFactory(StripedStats.FACTORY)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        long now = control.getTimestamp();
+
+        control.register(action, true);
+        control.register(action, false);
+
+        Stats s = getStats(control).get(now);
+
+        assertTrue(s instanceof StripedStats);
+        assertEquals(1, s.successCount());
+        assertEquals(1, s.failureCount());
+    }
+
+    @Test
+    public void shouldCreateMergedStatsOnlyWhenNeeded() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withStatsFactory(StripedStats.FACTORY)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        assertNull(control.getMergedStats());
+
+        control.getCollector().run();
+        control.reset();
+
+        assertNull(control.getMergedStats());
+
+        long now = control.getTimestamp();
+        control.merge(new BucketSnapshot(now * control.getBucketWidth(), 2, 1));
+
+        assertTrue(control.getMergedStats().get(now) instanceof SimpleStats);
+        assertEquals(3, control.getMergedStats().get(now).count());
+
+        OnOffCircuitControl parent = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+        OnOffCircuitControl.builder().withParent(parent).withClock(clock).startWorkers(false).build();
+
+        assertNotNull(parent.getMergedStats());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeCollectorThreadDelay() {
+        OnOffCircuitControl.builder().withCollectorThreadDelay(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveCollectorThreadInterval() {
+        OnOffCircuitControl.builder().withCollectorThreadInterval(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeCleanerThreadDelay() {
+        OnOffCircuitControl.builder().withCleanerThreadDelay(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveCleanerThreadInterval() {
+        OnOffCircuitControl.builder().withCleanerThreadInterval(0);
+    }
+
+    @Test
+    public void shouldBuild() {
+        Collector collector = Collector.builder().build();
+
+        OnOffCircuitControl control = OnOffCircuitControl.builder()
+                .withMinScore(OnOffCircuitControl.DEFAULT_MIN_SCORE+1)
+                .withMinSampleSize(OnOffCircuitControl.DEFAULT_MIN_SAMPLE_SIZE+1)
+                .withCollector(collector)
+                .startWorkers(false)
+                .withCollectorThreadDelay(OnOffCircuitControl.DEFAULT_COLLECTOR_THREAD_DELAY+1)
+                .withCollectorThreadInterval(OnOffCircuitControl.DEFAULT_COLLECTOR_THREAD_INTERVAL+1)
+                .build();
+
+        assertNotNull(control);
+        assertEquals(OnOffCircuitControl.DEFAULT_MIN_SCORE+1, control.getMinScore(), 0.01);
+        assertEquals(OnOffCircuitControl.DEFAULT_MIN_SAMPLE_SIZE+1, control.getMinSampleSize(), 0.01);
+        assertNull(TestUtil.getAttribute("collectorFuture", control));
+        assertTrue(TestUtil.getAttribute("collector", control) == collector);
+    }
+
+    @Test
+    public void shouldShutdownStarted() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().startWorkers(true).build();
+
+        assertNotNull(control);
+
+        ScheduledFuture<?> collectorFuture = (ScheduledFuture<?>) TestUtil.getAttribute("collectorFuture", control);
+
+        assertNotNull(collectorFuture);
+
+        control.shutdown();
+
+        assertTrue(collectorFuture.isCancelled());
+    }
+
+    @Test
+    public void shouldShutdownNonStarted() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        assertNotNull(control);
+
+        ScheduledFuture<?> collectorFuture = (ScheduledFuture<?>) TestUtil.getAttribute("collectorFuture", control);
+
+        assertNull(collectorFuture);
+
+        control.shutdown();
+
+        assertNull(collectorFuture);
+    }
+
+    @Test
+    public void shouldStartOnlyOnce() {
+        OnOffCircuitControl.Builder builder = OnOffCircuitControl.builder().startWorkers(true);
+        OnOffCircuitControl control = builder.build();
+
+        assertNotNull(control);
+
+        ScheduledFuture<?> collectorFuture = (ScheduledFuture<?>) TestUtil.getAttribute("collectorFuture", control);
+
+        assertNotNull(collectorFuture);
+
+        assertTrue(control == builder.build());
+        assertTrue(collectorFuture == TestUtil.getAttribute("collectorFuture", control));
+    }
+
+    @Test
+    public void shouldRollChildBucketsUpIntoParent() {
+        OnOffCircuitControl parent = OnOffCircuitControl.builder()
+                .withMinSampleSize(1)
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        OnOffCircuitControl first = OnOffCircuitControl.builder().withParent(parent).withClock(clock).startWorkers(false).build();
+        OnOffCircuitControl second = OnOffCircuitControl.builder().withParent(parent).withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        long key = parent.getTimestamp();
+
+        for (int i = 0; i < 3; i++) {
+            first.register(action, true);
+            second.register(action, false);
+        }
+        second.register(action, true);
+
+        assertNull(parent.getMergedStats().get(key));
+
+        clock.advance(1000);
+        parent.getCollector().run();
+
+        Stats rolled = parent.getMergedStats().get(key);
+
+        assertNull(getStats(parent).get(key));
+
+        assertEquals(4, rolled.successCount());
+        assertEquals(3, rolled.failureCount());
+        assertTrue(parent == first.getParent());
+
+        parent.rollUpChildren(key);
+
+        assertEquals(7, parent.getMergedStats().get(key).count());
+    }
+
+    @Test
+    public void shouldScoreRolledUpCallsWithoutReportingThem() {
+        final AtomicInteger reported = new AtomicInteger();
+
+        OnOffCircuitControl parent = OnOffCircuitControl.builder()
+                .withMinSampleSize(1)
+                .withCollector(Collector.builder().withWeights(new double[]{1}).build())
+                .withMetrics(new BreakerMetrics() {
+                    @Override
+                    public void success(long count) {
+                        reported.addAndGet((int) count);
+                    }
+
+                    @Override
+                    public void failure(long count) {
+                        reported.addAndGet((int) count);
+                    }
+
+                    @Override
+                    public void open() {
+                    }
+
+                    @Override
+                    public void close() {
+                    }
+
+                    @Override
+                    public void insufficientData() {
+                    }
+                })
+                .withClock(clock)
+                .startWorkers(false)
+                .build();
+
+        OnOffCircuitControl child = OnOffCircuitControl.builder().withParent(parent).withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        for (int i = 0; i < 3; i++)
+            child.register(action, true);
+        child.register(action, false);
+        parent.register(action, true);
+
+        clock.advance(1000);
+        parent.getCollector().run();
+
+        assertEquals(1, reported.get());
+        assertEquals(0.8, parent.getScore(), 0.0001);
+
+        parent.getCollector().run();
+
+        assertEquals(1, reported.get());
+    }
+
+    @Test
+    public void shouldDetachChildOnShutdown() {
+        OnOffCircuitControl parent = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+        OnOffCircuitControl child = OnOffCircuitControl.builder().withParent(parent).withClock(clock).startWorkers(false).build();
+
+        assertEquals(1, ((List<?>) TestUtil.getAttribute("children", parent)).size());
+
+        child.shutdown();
+
+        assertEquals(0, ((List<?>) TestUtil.getAttribute("children", parent)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectParentWithDifferentBucketWidth() {
+        OnOffCircuitControl parent = OnOffCircuitControl.builder().withBucketWidth(500).startWorkers(false).build();
+
+        OnOffCircuitControl.builder().withParent(parent).startWorkers(false).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnbuiltParent() {
+        OnOffCircuitControl.builder().withParent((OnOffCircuitControl) TestUtil.getAttribute("control", OnOffCircuitControl.builder()));
+    }
+
+    @Test
+    public void shouldExposeWindowBuckets() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        Action<Boolean> action = new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result && e == null;
+            }
+        };
+
+        control.register(action, true);
+        clock.advance(5000);
+        control.register(action, true);
+        control.register(action, false);
+
+        List<BucketSnapshot> buckets = control.getBuckets();
+
+        assertEquals(1, buckets.size());
+        assertEquals(1, buckets.get(0).getSuccesses());
+        assertEquals(1, buckets.get(0).getFailures());
+        assertEquals(control.getTimestamp() * control.getBucketWidth(), buckets.get(0).getStart());
+        assertTrue(Double.isNaN(control.getScore()));
+    }
+
+    @Test
+    public void shouldMergeBucketsInWindow() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        long now = control.getTimestamp();
+        long width = control.getBucketWidth();
+
+        assertTrue(control.merge(new BucketSnapshot(now * width, 3, 2)));
+        assertTrue(control.merge(new BucketSnapshot((now - control.getWindowSize()) * width, 1, 0)));
+        assertFalse(control.merge(new BucketSnapshot((now + 1) * width, 1, 0)));
+        assertFalse(control.merge(new BucketSnapshot((now - control.getWindowSize() - 1) * width, 1, 0)));
+
+        assertEquals(3, control.getMergedStats().get(now).successCount());
+        assertEquals(2, control.getMergedStats().get(now).failureCount());
+        assertEquals(1, control.getMergedStats().get(now - control.getWindowSize()).count());
+        assertNull(control.getMergedStats().get(now + 1));
+        assertNull(getStats(control).get(now));
+    }
+
+    @Test
+    public void shouldSeparateLocalBuckets() {
+        OnOffCircuitControl control = OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+
+        long now = control.getTimestamp();
+
+        control.register(new Action<Boolean>() {
+            @Override
+            public Boolean get() throws Exception {
+                return true;
+            }
+
+            @Override
+            public boolean isValid(Boolean result, Exception e) {
+                return result;
+            }
+        }, true);
+        control.merge(new BucketSnapshot(now * control.getBucketWidth(), 3, 2));
+
+        List<BucketSnapshot> buckets = control.getBuckets();
+        List<BucketSnapshot> local = control.getLocalBuckets();
+
+        assertEquals(1, buckets.size());
+        assertEquals(4, buckets.get(0).getSuccesses());
+        assertEquals(2, buckets.get(0).getFailures());
+        assertEquals(1, local.size());
+        assertEquals(1, local.get(0).getSuccesses());
+        assertEquals(0, local.get(0).getFailures());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullMergedBucket() {
+        OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build().merge(null);
+    }
+
+}
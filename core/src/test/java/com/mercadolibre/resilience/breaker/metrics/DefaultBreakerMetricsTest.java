@@ -0,0 +1,45 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DefaultBreakerMetricsTest {
+
+    public static class CountingMetrics implements BreakerMetrics {
+        @Override
+        public void success(long count) {
+        }
+
+        @Override
+        public void failure(long count) {
+        }
+
+        @Override
+        public void open() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void insufficientData() {
+        }
+    }
+
+    @Test
+    public void shouldFallBackToNoOpWithoutJavaMetricsModule() {
+        assertTrue(DefaultBreakerMetrics.create() == NoOpBreakerMetrics.INSTANCE);
+    }
+
+    @Test
+    public void shouldLoadAdapterByName() {
+        assertTrue(DefaultBreakerMetrics.create(CountingMetrics.class.getName()) instanceof CountingMetrics);
+    }
+
+    @Test
+    public void shouldIgnoreClassesThatAreNotMetrics() {
+        assertTrue(DefaultBreakerMetrics.create(String.class.getName()) == NoOpBreakerMetrics.INSTANCE);
+    }
+
+}
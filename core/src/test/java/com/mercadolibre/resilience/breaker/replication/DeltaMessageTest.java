@@ -0,0 +1,67 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class DeltaMessageTest {
+
+    @Test
+    public void shouldRoundTrip() throws IOException {
+        DeltaMessage message = new DeltaMessage("payments", "node-1", 1000,
+                Arrays.asList(new BucketSnapshot(1000, 10, 2), new BucketSnapshot(2000, 0, 7)));
+
+        DeltaMessage decoded = DeltaMessage.decode(message.encode());
+
+        assertEquals("payments", decoded.getName());
+        assertEquals("node-1", decoded.getNode());
+        assertEquals(1000, decoded.getWidth());
+        assertEquals(2, decoded.getDeltas().size());
+        assertEquals(1000, decoded.getDeltas().get(0).getStart());
+        assertEquals(10, decoded.getDeltas().get(0).getSuccesses());
+        assertEquals(2, decoded.getDeltas().get(0).getFailures());
+        assertEquals(7, decoded.getDeltas().get(1).getFailures());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTruncatedMessage() throws IOException {
+        byte[] encoded = new DeltaMessage("payments", "node-1", 1000, Collections.singletonList(new BucketSnapshot(1000, 1, 1))).encode();
+
+        DeltaMessage.decode(Arrays.copyOf(encoded, encoded.length - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectUnknownVersion() throws IOException {
+        byte[] encoded = new DeltaMessage("payments", "node-1", 1000, Collections.<BucketSnapshot>emptyList()).encode();
+        encoded[0] = DeltaMessage.VERSION + 1;
+
+        DeltaMessage.decode(encoded);
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNegativeCounts() throws IOException {
+        DeltaMessage.decode(new DeltaMessage("payments", "node-1", 1000, Collections.singletonList(new BucketSnapshot(1000, -5, 1))).encode());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectImplausibleCounts() throws IOException {
+        DeltaMessage.decode(new DeltaMessage("payments", "node-1", 1000, Collections.singletonList(new BucketSnapshot(1000, 1, Long.MAX_VALUE))).encode());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectNonPositiveWidth() throws IOException {
+        DeltaMessage.decode(new DeltaMessage("payments", "node-1", 0, Collections.<BucketSnapshot>emptyList()).encode());
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectTrailingBytes() throws IOException {
+        byte[] encoded = new DeltaMessage("payments", "node-1", 1000, Collections.<BucketSnapshot>emptyList()).encode();
+
+        DeltaMessage.decode(Arrays.copyOf(encoded, encoded.length + 1));
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LoopbackNetworkTest {
+
+    private MessageHandler collect(final List<byte[]> messages) {
+        return new MessageHandler() {
+            @Override
+            public void onMessage(byte[] message) {
+                messages.add(message);
+            }
+        };
+    }
+
+    @Test
+    public void shouldDeliverToOtherNodesOnly() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Transport first = network.join();
+        Transport second = network.join();
+        Transport third = network.join();
+
+        List<byte[]> atFirst = new ArrayList<>();
+        List<byte[]> atSecond = new ArrayList<>();
+        List<byte[]> atThird = new ArrayList<>();
+
+        first.addHandler(collect(atFirst));
+        second.addHandler(collect(atSecond));
+        third.addHandler(collect(atThird));
+
+        assertTrue(first.send(new byte[]{1, 2}));
+
+        assertEquals(0, atFirst.size());
+        assertArrayEquals(new byte[]{1, 2}, atSecond.get(0));
+        assertArrayEquals(new byte[]{1, 2}, atThird.get(0));
+    }
+
+    @Test
+    public void shouldStopDeliveringOnClose() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        Transport first = network.join();
+        Transport second = network.join();
+
+        List<byte[]> messages = new ArrayList<>();
+        MessageHandler handler = collect(messages);
+        second.addHandler(handler);
+
+        second.removeHandler(handler);
+        first.send(new byte[]{1});
+
+        second.addHandler(handler);
+        second.close();
+        first.send(new byte[]{2});
+
+        assertTrue(messages.isEmpty());
+        assertFalse(second.send(new byte[]{3}));
+        assertEquals(1, network.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullHandler() {
+        new LoopbackNetwork().join().addHandler(null);
+    }
+
+}
@@ -0,0 +1,428 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import com.mercadolibre.resilience.breaker.Action;
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import com.mercadolibre.resilience.breaker.control.OnOffCircuitControl;
+import com.mercadolibre.resilience.breaker.metrics.BreakerMetrics;
+import com.mercadolibre.resilience.breaker.stats.BucketSnapshot;
+import com.mercadolibre.resilience.breaker.util.TestUtil;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ReplicatorTest {
+
+    private final ManualClock clock = new ManualClock(System.currentTimeMillis());
+
+    private final Action<Boolean> action = new Action<Boolean>() {
+        @Override
+        public Boolean get() throws Exception {
+            return true;
+        }
+
+        @Override
+        public boolean isValid(Boolean result, Exception e) {
+            return result && e == null;
+        }
+    };
+
+    private OnOffCircuitControl control() {
+        return OnOffCircuitControl.builder().withClock(clock).startWorkers(false).build();
+    }
+
+    private Replicator replicator(String name, OnOffCircuitControl control, Transport transport) {
+        return Replicator.builder()
+                .withName(name)
+                .withControl(control)
+                .withTransport(transport)
+                .startWorkers(false)
+                .build();
+    }
+
+    private void register(OnOffCircuitControl control, boolean result, int times) {
+        for (int i = 0; i < times; i++)
+            control.register(action, result);
+    }
+
+    private long count(OnOffCircuitControl control) {
+        long count = 0;
+        for (BucketSnapshot bucket : control.getBuckets())
+            count += bucket.getCount();
+
+        return count;
+    }
+
+    private List<byte[]> observe(LoopbackNetwork network) {
+        final List<byte[]> messages = new ArrayList<>();
+
+        network.join().addHandler(new MessageHandler() {
+            @Override
+            public void onMessage(byte[] message) {
+                messages.add(message);
+            }
+        });
+
+        return messages;
+    }
+
+    @Test
+    public void shouldShareLocalCallsOnly() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        OnOffCircuitControl first = control();
+        OnOffCircuitControl second = control();
+
+        Replicator a = replicator("payments", first, network.join());
+        Replicator b = replicator("payments", second, network.join());
+
+        List<byte[]> messages = observe(network);
+
+        register(first, true, 5);
+        a.send();
+        b.send();
+        a.send();
+
+        assertEquals(1, messages.size());
+        assertEquals(5, count(first));
+        assertEquals(5, count(second));
+
+        register(second, false, 2);
+        b.send();
+        a.send();
+
+        assertEquals(2, messages.size());
+        assertEquals(7, count(first));
+        assertEquals(7, count(second));
+    }
+
+    @Test
+    public void shouldTripOnFleetWideFailures() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        OnOffCircuitControl first = control();
+        OnOffCircuitControl second = control();
+        OnOffCircuitControl alone = control();
+
+        Replicator a = replicator("payments", first, network.join());
+        Replicator b = replicator("payments", second, network.join());
+
+        int calls = (int) OnOffCircuitControl.DEFAULT_MIN_SAMPLE_SIZE / 2 + 1;
+
+        for (int i = 0; i < first.getWindowSize(); i++) {
+            register(first, false, calls);
+            register(second, false, calls);
+            register(alone, false, calls);
+
+            a.send();
+            b.send();
+
+            clock.advance(first.getBucketWidth());
+        }
+
+        run(first);
+        run(second);
+        run(alone);
+
+        assertTrue(first.shouldOpen());
+        assertTrue(second.shouldOpen());
+        assertFalse(alone.shouldOpen());
+    }
+
+    private void run(OnOffCircuitControl control) {
+        ((Runnable) TestUtil.getAttribute("collector", control)).run();
+    }
+
+    @Test
+    public void shouldNotReportMergedCallsInMetrics() {
+        final AtomicLong reported = new AtomicLong();
+
+        BreakerMetrics metrics = new BreakerMetrics() {
+            @Override
+            public void success(long count) {
+                reported.addAndGet(count);
+            }
+
+            @Override
+            public void failure(long count) {
+                reported.addAndGet(count);
+            }
+
+            @Override
+            public void open() {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public void insufficientData() {
+            }
+        };
+
+        LoopbackNetwork network = new LoopbackNetwork();
+        OnOffCircuitControl first = control();
+        OnOffCircuitControl second = OnOffCircuitControl.builder().withMetrics(metrics).withClock(clock).startWorkers(false).build();
+
+        Replicator a = replicator("payments", first, network.join());
+        replicator("payments", second, network.join());
+
+        register(first, true, 5);
+        a.send();
+        register(second, false, 2);
+
+        run(second);
+
+        assertEquals(7, count(second));
+        assertEquals(2, reported.get());
+    }
+
+    @Test
+    public void shouldIgnoreOtherControls() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        OnOffCircuitControl first = control();
+        OnOffCircuitControl second = control();
+
+        Replicator a = replicator("payments", first, network.join());
+        replicator("shipping", second, network.join());
+
+        register(first, true, 3);
+        a.send();
+
+        assertEquals(0, count(second));
+    }
+
+    @Test
+    public void shouldIgnoreOwnAndMalformedMessages() {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+
+        Replicator.builder()
+                .withName("payments")
+                .withNode("node-1")
+                .withControl(control)
+                .withTransport(transport)
+                .startWorkers(false)
+                .build();
+
+        List<BucketSnapshot> deltas = new ArrayList<>();
+        deltas.add(new BucketSnapshot(clock.currentTimeMillis(), 4, 0));
+
+        transport.handler.onMessage(new DeltaMessage("payments", "node-1", control.getBucketWidth(), deltas).encode());
+        assertEquals(0, count(control));
+
+        transport.handler.onMessage(new DeltaMessage("payments", "node-2", control.getBucketWidth(), deltas).encode());
+        assertEquals(4, count(control));
+
+        transport.handler.onMessage(new byte[]{1, 2, 3});
+        assertEquals(4, count(control));
+    }
+
+    @Test
+    public void shouldIgnoreMessagesWithOtherBucketWidth() {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+
+        replicator("payments", control, transport);
+
+        List<BucketSnapshot> deltas = new ArrayList<>();
+        deltas.add(new BucketSnapshot(clock.currentTimeMillis(), 4, 0));
+
+        transport.handler.onMessage(new DeltaMessage("payments", "node-2", control.getBucketWidth() * 2, deltas).encode());
+        assertEquals(0, count(control));
+
+        transport.handler.onMessage(new DeltaMessage("payments", "node-2", control.getBucketWidth(), deltas).encode());
+        assertEquals(4, count(control));
+    }
+
+    @Test
+    public void shouldDropDeltasOutsideWindow() {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+
+        Replicator replicator = replicator("payments", control, transport);
+
+        List<BucketSnapshot> deltas = new ArrayList<>();
+        deltas.add(new BucketSnapshot(clock.currentTimeMillis() + 10 * control.getBucketWidth(), 4, 0));
+        deltas.add(new BucketSnapshot(clock.currentTimeMillis(), 0, 1));
+
+        transport.handler.onMessage(new DeltaMessage("payments", "node-2", control.getBucketWidth(), deltas).encode());
+
+        assertEquals(1, count(control));
+
+        register(control, true, 2);
+        replicator.send();
+
+        List<BucketSnapshot> sent = transport.decodeLast().getDeltas();
+        assertEquals(1, sent.size());
+        assertEquals(2, sent.get(0).getSuccesses());
+        assertEquals(0, sent.get(0).getFailures());
+    }
+
+    @Test
+    public void shouldDetachOnShutdown() {
+        LoopbackNetwork network = new LoopbackNetwork();
+        OnOffCircuitControl first = control();
+        OnOffCircuitControl second = control();
+
+        Replicator a = replicator("payments", first, network.join());
+        Replicator b = replicator("payments", second, network.join());
+
+        b.shutdown();
+
+        register(first, true, 3);
+        a.send();
+
+        assertEquals(0, count(second));
+    }
+
+    @Test
+    public void shouldSplitDeltasIntoMessagesThatFit() throws IOException {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+        transport.maxMessageSize = new DeltaMessage("payments", "node-1", control.getBucketWidth(), new ArrayList<BucketSnapshot>()).encode().length + 2 * 24;
+
+        Replicator replicator = Replicator.builder()
+                .withName("payments")
+                .withNode("node-1")
+                .withControl(control)
+                .withTransport(transport)
+                .startWorkers(false)
+                .build();
+
+        for (int i = 0; i <= control.getWindowSize(); i++) {
+            if (i > 0) clock.advance(control.getBucketWidth());
+
+            register(control, true, i + 1);
+        }
+
+        replicator.send();
+
+        assertEquals(2, transport.messages.size());
+
+        long successes = 0;
+        for (byte[] message : transport.messages) {
+            DeltaMessage deltas = DeltaMessage.decode(message);
+            assertTrue(deltas.getDeltas().size() <= 2);
+
+            for (BucketSnapshot delta : deltas.getDeltas())
+                successes += delta.getSuccesses();
+        }
+
+        assertEquals(count(control), successes);
+    }
+
+    @Test
+    public void shouldResendDeltasAfterFailedSend() {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+
+        Replicator replicator = replicator("payments", control, transport);
+
+        register(control, true, 3);
+        transport.failing = true;
+        replicator.send();
+
+        assertTrue(transport.messages.isEmpty());
+
+        register(control, false, 1);
+        transport.failing = false;
+        replicator.send();
+
+        List<BucketSnapshot> sent = transport.decodeLast().getDeltas();
+        assertEquals(1, sent.size());
+        assertEquals(3, sent.get(0).getSuccesses());
+        assertEquals(1, sent.get(0).getFailures());
+    }
+
+    @Test
+    public void shouldForgetSentDeltasOnReset() {
+        OnOffCircuitControl control = control();
+        CapturingTransport transport = new CapturingTransport();
+
+        Replicator replicator = replicator("payments", control, transport);
+
+        register(control, true, 5);
+        replicator.send();
+
+        control.reset();
+        register(control, false, 2);
+        replicator.send();
+
+        List<BucketSnapshot> sent = transport.decodeLast().getDeltas();
+        assertEquals(2, transport.messages.size());
+        assertEquals(0, sent.get(0).getSuccesses());
+        assertEquals(2, sent.get(0).getFailures());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNamesNotFittingInMessage() {
+        CapturingTransport transport = new CapturingTransport();
+        transport.maxMessageSize = 16;
+
+        replicator("payments", control(), transport);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireName() {
+        Replicator.builder().withControl(control()).withTransport(new LoopbackNetwork().join()).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequireTransport() {
+        Replicator.builder().withName("payments").withControl(control()).build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveInterval() {
+        Replicator.builder().withInterval(0);
+    }
+
+    private static final class CapturingTransport implements Transport {
+        private MessageHandler handler;
+        private byte[] last;
+        private int maxMessageSize = Integer.MAX_VALUE;
+        private boolean failing;
+        private final List<byte[]> messages = new ArrayList<>();
+
+        @Override
+        public boolean send(byte[] message) {
+            if (failing || message.length > maxMessageSize) return false;
+
+            last = message;
+            messages.add(message);
+
+            return true;
+        }
+
+        @Override
+        public int getMaxMessageSize() {
+            return maxMessageSize;
+        }
+
+        @Override
+        public void addHandler(MessageHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void removeHandler(MessageHandler handler) {
+            this.handler = null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private DeltaMessage decodeLast() {
+            try {
+                return DeltaMessage.decode(last);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.mercadolibre.resilience.breaker.replication;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class UdpTransportTest {
+
+    private InetSocketAddress local(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    private int freePort() throws SocketException {
+        try (DatagramSocket socket = new DatagramSocket(local(0))) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Test
+    public void shouldSendToPeers() throws Exception {
+        int senderPort = freePort();
+
+        UdpTransport receiver = UdpTransport.builder().withAddress(local(0)).withPeer(local(senderPort)).build();
+        UdpTransport sender = UdpTransport.builder().withAddress(local(senderPort)).withPeer(local(receiver.getLocalAddress().getPort())).build();
+
+        final BlockingQueue<byte[]> messages = new ArrayBlockingQueue<>(10);
+        receiver.addHandler(new MessageHandler() {
+            @Override
+            public void onMessage(byte[] message) {
+                messages.add(message);
+            }
+        });
+
+        try {
+            assertTrue(sender.send(new byte[]{4, 5, 6}));
+
+            assertArrayEquals(new byte[]{4, 5, 6}, messages.poll(5, TimeUnit.SECONDS));
+        } finally {
+            sender.close();
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void shouldDropMessagesFromOtherAddresses() throws Exception {
+        int peerPort = freePort();
+
+        UdpTransport receiver = UdpTransport.builder().withAddress(local(0)).withPeer(local(peerPort)).build();
+        UdpTransport stranger = UdpTransport.builder().withAddress(local(0)).withPeer(local(receiver.getLocalAddress().getPort())).build();
+        UdpTransport peer = UdpTransport.builder().withAddress(local(peerPort)).withPeer(local(receiver.getLocalAddress().getPort())).build();
+
+        final BlockingQueue<byte[]> messages = new ArrayBlockingQueue<>(10);
+        receiver.addHandler(new MessageHandler() {
+            @Override
+            public void onMessage(byte[] message) {
+                messages.add(message);
+            }
+        });
+
+        try {
+            assertTrue(stranger.send(new byte[]{1, 2, 3}));
+            assertTrue(peer.send(new byte[]{4, 5, 6}));
+
+            assertArrayEquals(new byte[]{4, 5, 6}, messages.poll(5, TimeUnit.SECONDS));
+            assertNull(messages.poll(200, TimeUnit.MILLISECONDS));
+        } finally {
+            stranger.close();
+            peer.close();
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void shouldFailOversizeMessages() {
+        UdpTransport transport = UdpTransport.builder().withAddress(local(0)).withPeer(local(9)).build();
+
+        try {
+            assertFalse(transport.send(new byte[UdpTransport.MAX_MESSAGE_SIZE + 1]));
+            assertEquals(UdpTransport.MAX_MESSAGE_SIZE, transport.getMaxMessageSize());
+        } finally {
+            transport.close();
+        }
+
+        assertFalse(transport.send(new byte[]{1}));
+    }
+
+    @Test
+    public void shouldStopReceiverOnClose() throws Exception {
+        UdpTransport transport = UdpTransport.builder().withAddress(local(0)).build();
+
+        transport.close();
+
+        Thread receiver = null;
+        for (Thread t : Thread.getAllStackTraces().keySet())
+            if (t.getName().equals("breaker-replication") && t.isAlive()) receiver = t;
+
+        if (receiver != null) receiver.join(5000);
+
+        assertTrue(receiver == null || !receiver.isAlive());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullPeer() {
+        UdpTransport.builder().withPeer(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullAddress() {
+        UdpTransport.builder().withAddress(null);
+    }
+
+}
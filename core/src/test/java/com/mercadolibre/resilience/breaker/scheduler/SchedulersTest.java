@@ -0,0 +1,51 @@
+package com.mercadolibre.resilience.breaker.scheduler;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class SchedulersTest {
+
+    private static final Runnable NOOP = new Runnable() {
+        @Override
+        public void run() {
+        }
+    };
+
+    @Test
+    public void shouldReturnSameSharedScheduler() {
+        assertTrue(Schedulers.shared() == Schedulers.shared());
+    }
+
+    @Test
+    public void shouldReturnSameExecutor() {
+        assertNotNull(Schedulers.executor());
+        assertTrue(Schedulers.executor() == Schedulers.executor());
+    }
+
+    @Test
+    public void shouldRemoveCancelledTasks() {
+        ScheduledThreadPoolExecutor scheduler = (ScheduledThreadPoolExecutor) Schedulers.newScheduler(1, "test");
+
+        try {
+            ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(NOOP, 1, 1, TimeUnit.HOURS);
+
+            assertEquals(1, scheduler.getQueue().size());
+
+            future.cancel(true);
+
+            assertEquals(0, scheduler.getQueue().size());
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveThreads() {
+        Schedulers.newScheduler(0, "test");
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.mercadolibre.resilience.breaker.scheduler;
+
+import com.mercadolibre.resilience.breaker.clock.ManualClock;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualSchedulerTest {
+
+    private final ManualClock clock = new ManualClock(1000);
+    private final VirtualScheduler scheduler = new VirtualScheduler(clock);
+
+    @Test
+    public void shouldRunTasksInTimeOrder() {
+        final List<String> runs = new ArrayList<>();
+
+        scheduler.schedule(record(runs, "b"), 20, TimeUnit.MILLISECONDS);
+        scheduler.schedule(record(runs, "a"), 10, TimeUnit.MILLISECONDS);
+        scheduler.schedule(record(runs, "c"), 20, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(15);
+
+        assertEquals(1, runs.size());
+        assertEquals("a@1010", runs.get(0));
+        assertEquals(1015, clock.currentTimeMillis());
+
+        scheduler.advance(100);
+
+        assertEquals("b@1020", runs.get(1));
+        assertEquals("c@1020", runs.get(2));
+        assertEquals(1115, clock.currentTimeMillis());
+    }
+
+    @Test
+    public void shouldRepeatAtFixedRate() {
+        final List<String> runs = new ArrayList<>();
+
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(record(runs, "t"), 10, 5, TimeUnit.MILLISECONDS);
+
+        scheduler.advance(30);
+
+        assertEquals(5, runs.size());
+        assertEquals("t@1030", runs.get(4));
+
+        future.cancel(false);
+        scheduler.advance(30);
+
+        assertEquals(5, runs.size());
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    public void shouldCompleteCallables() throws Exception {
+        ScheduledFuture<String> future = scheduler.schedule(new Callable<String>() {
+            @Override
+            public String call() {
+                return "done";
+            }
+        }, 1, TimeUnit.SECONDS);
+
+        assertFalse(future.isDone());
+        assertEquals(1000, future.getDelay(TimeUnit.MILLISECONDS));
+
+        scheduler.advance(1000);
+
+        assertTrue(future.isDone());
+        assertEquals("done", future.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotGoBackwards() {
+        scheduler.advanceTo(999);
+    }
+
+    private Runnable record(final List<String> runs, final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runs.add(name + "@" + clock.currentTimeMillis());
+            }
+        };
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FailureProfilesTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void shouldStepBetweenRates() {
+        FailureProfile profile = FailureProfiles.step(100, 200, 0.1, 0.9);
+
+        assertEquals(0.1, profile.failureRate(99), DELTA);
+        assertEquals(0.9, profile.failureRate(100), DELTA);
+        assertEquals(0.9, profile.failureRate(199), DELTA);
+        assertEquals(0.1, profile.failureRate(200), DELTA);
+    }
+
+    @Test
+    public void shouldDegradeGradually() {
+        FailureProfile profile = FailureProfiles.gradual(100, 200, 0, 0.8);
+
+        assertEquals(0, profile.failureRate(50), DELTA);
+        assertEquals(0.4, profile.failureRate(150), DELTA);
+        assertEquals(0.8, profile.failureRate(200), DELTA);
+        assertEquals(0.8, profile.failureRate(1000), DELTA);
+    }
+
+    @Test
+    public void shouldFlap() {
+        FailureProfile profile = FailureProfiles.flapping(100, 50, 0, 1);
+
+        assertEquals(0, profile.failureRate(99), DELTA);
+        assertEquals(1, profile.failureRate(100), DELTA);
+        assertEquals(0, profile.failureRate(150), DELTA);
+        assertEquals(1, profile.failureRate(200), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidRate() {
+        FailureProfiles.constant(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectEmptyStep() {
+        FailureProfiles.step(100, 100, 0, 1);
+    }
+
+}
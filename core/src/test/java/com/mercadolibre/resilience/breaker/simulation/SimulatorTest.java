@@ -0,0 +1,96 @@
+package com.mercadolibre.resilience.breaker.simulation;
+
+import com.mercadolibre.resilience.breaker.CircuitBreaker;
+import com.mercadolibre.resilience.breaker.State;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SimulatorTest {
+
+    private CircuitBreaker breaker(Simulator simulator) {
+        return CircuitBreaker.builder()
+                .withClock(simulator.getClock())
+                .withScheduler(simulator.getScheduler())
+                .withInterval(5000)
+                .withTryWindow(5000)
+                .build();
+    }
+
+    @Test
+    public void shouldMeasureStepFailure() {
+        Simulator simulator = Simulator.builder()
+                .withProfile(FailureProfiles.step(60 * 1000, 120 * 1000, 0, 1))
+                .withDuration(240 * 1000)
+                .build();
+
+        SimulationReport report = simulator.run(breaker(simulator));
+
+        assertEquals(1, report.getEpisodes());
+        assertEquals(0, report.getMissedEpisodes());
+        assertEquals(0, report.getFalseTrips());
+        assertEquals(1, report.getTimesToOpen().size());
+        assertEquals(1, report.getTimesToClose().size());
+        assertTrue(report.getTimesToOpen().get(0) <= 3000);
+        assertEquals(24000, report.getCalls());
+    }
+
+    @Test
+    public void shouldNotTripOnHealthyTraffic() {
+        Simulator simulator = Simulator.builder()
+                .withProfile(FailureProfiles.constant(0.1))
+                .withDuration(120 * 1000)
+                .withSeed(7)
+                .build();
+
+        CircuitBreaker breaker = breaker(simulator);
+        SimulationReport report = simulator.run(breaker);
+
+        assertEquals(0, report.getFalseTrips());
+        assertEquals(0, report.getRejections());
+        assertEquals(0, report.getEpisodes());
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(report.getFailures() > 0);
+    }
+
+    @Test
+    public void shouldBeDeterministicForSeed() {
+        SimulationReport first = flapping(42);
+        SimulationReport second = flapping(42);
+
+        assertEquals(first.getFailures(), second.getFailures());
+        assertEquals(first.getRejections(), second.getRejections());
+        assertEquals(first.getTimesToOpen(), second.getTimesToOpen());
+        assertEquals(first.getTransitions().size(), second.getTransitions().size());
+        assertEquals(4, first.getEpisodes());
+    }
+
+    @Test
+    public void shouldCountRejectedGoodCalls() {
+        Simulator simulator = Simulator.builder()
+                .withProfile(FailureProfiles.gradual(30 * 1000, 90 * 1000, 0, 0.8))
+                .withDuration(180 * 1000)
+                .build();
+
+        SimulationReport report = simulator.run(breaker(simulator));
+
+        assertTrue(report.getRejections() > 0);
+        assertTrue(report.getRejectedGoodCalls() > 0);
+        assertTrue(report.getRejectedGoodCalls() < report.getRejections());
+    }
+
+    private SimulationReport flapping(long seed) {
+        Simulator simulator = Simulator.builder()
+                .withProfile(FailureProfiles.flapping(30 * 1000, 20 * 1000, 0.05, 0.9))
+                .withDuration(190 * 1000)
+                .withSeed(seed)
+                .build();
+
+        return simulator.run(breaker(simulator));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullBreaker() {
+        Simulator.builder().build().run(null);
+    }
+
+}
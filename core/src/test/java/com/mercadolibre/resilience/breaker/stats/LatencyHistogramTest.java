@@ -0,0 +1,103 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldKeepValuesWithinBucketBounds() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123456, 1L << 35};
+
+        for (long v : values) {
+            int index = LatencyHistogram.index(v);
+
+            assertTrue(LatencyHistogram.lowerBound(index) <= v);
+            assertTrue(LatencyHistogram.upperBound(index) >= v);
+        }
+    }
+
+    @Test
+    public void shouldUseContiguousIndexes() {
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++)
+            assertEquals(LatencyHistogram.upperBound(i - 1) + 1, LatencyHistogram.lowerBound(i));
+    }
+
+    @Test
+    public void shouldClampLargeValues() {
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.index(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.index(-1));
+    }
+
+    @Test
+    public void shouldComputePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int i = 0; i < 90; i++)
+            histogram.record(1000000);
+
+        for (int i = 0; i < 10; i++)
+            histogram.record(500000000);
+
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(counts);
+
+        long p50 = LatencyHistogram.percentile(counts, 50);
+        long p99 = LatencyHistogram.percentile(counts, 99);
+
+        assertTrue(p50 >= 1000 && p50 < 1000 * 1.125);
+        assertTrue(p99 >= 500000 && p99 < 500000 * 1.125);
+        assertEquals(10, LatencyHistogram.countAtLeast(counts, 400000));
+        assertEquals(100, LatencyHistogram.countAtLeast(counts, 0));
+    }
+
+    @Test
+    public void shouldReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(1000);
+        histogram.reset();
+
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(counts);
+
+        assertEquals(0, LatencyHistogram.countAtLeast(counts, 0));
+    }
+
+    @Test
+    public void shouldSubtractFromCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(5 * 1000);
+        histogram.record(100 * 1000);
+        histogram.record(100 * 1000);
+
+        long[] counts = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(counts);
+        histogram.addTo(counts);
+
+        histogram.subtractFrom(counts);
+        assertEquals(3, LatencyHistogram.countAtLeast(counts, 0));
+
+        histogram.record(100 * 1000);
+        histogram.subtractFrom(counts);
+        assertEquals(0, LatencyHistogram.countAtLeast(counts, 0));
+    }
+
+    @Test
+    public void shouldAddOtherHistogram() {
+        LatencyHistogram target = new LatencyHistogram();
+        LatencyHistogram other = new LatencyHistogram();
+
+        target.record(5 * 1000);
+        other.record(5 * 1000);
+        other.record(100 * 1000);
+
+        target.add(other);
+
+        assertEquals(2, target.get(LatencyHistogram.index(5)));
+        assertEquals(1, target.get(LatencyHistogram.index(100)));
+        assertEquals(1, other.get(LatencyHistogram.index(5)));
+    }
+
+}
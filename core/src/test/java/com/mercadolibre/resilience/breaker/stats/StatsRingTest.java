@@ -0,0 +1,117 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class StatsRingTest {
+
+    @Test
+    public void shouldReturnSameStatsForSameKey() {
+        StatsRing ring = new StatsRing(5);
+
+        Stats stats = ring.acquire(10);
+        stats.addSuccess();
+
+        assertTrue(stats == ring.acquire(10));
+        assertTrue(stats == ring.get(10));
+        assertEquals(1, ring.get(10).successCount());
+    }
+
+    @Test
+    public void shouldReturnNullForMissingKey() {
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(10).addSuccess();
+
+        assertNull(ring.get(11));
+        assertNull(ring.get(5));
+    }
+
+    @Test
+    public void shouldResetStaleSlot() {
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(10).addFailure();
+        Stats stats = ring.acquire(15);
+
+        assertEquals(0, stats.count());
+        assertNull(ring.get(10));
+        assertTrue(stats == ring.get(15));
+    }
+
+    @Test
+    public void shouldIgnoreOverwrittenKey() {
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(15).addSuccess();
+
+        assertNull(ring.acquire(10));
+        assertEquals(1, ring.get(15).count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveCapacity() {
+        new StatsRing(0);
+    }
+
+    @Test
+    public void shouldHandleNegativeKeys() {
+        StatsRing ring = new StatsRing(5);
+
+        ring.acquire(-3).addSuccess();
+
+        assertEquals(1, ring.get(-3).successCount());
+        assertNull(ring.get(2));
+    }
+
+    @Test
+    public void shouldNotWaitForSlowerWriterOfSameBucket() throws Exception {
+        final AtomicBoolean armed = new AtomicBoolean(false);
+        final CountDownLatch creating = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final StatsRing ring = new StatsRing(1, new StatsFactory() {
+            @Override
+            public Stats create() {
+                if (armed.compareAndSet(true, false)) {
+                    creating.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                return new SimpleStats();
+            }
+        });
+
+        ring.acquire(1).addFailure();
+        armed.set(true);
+
+        Thread slow = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ring.acquire(2).addFailure();
+            }
+        });
+        slow.start();
+
+        assertTrue(creating.await(5, TimeUnit.SECONDS));
+
+        ring.acquire(2).addSuccess();
+
+        assertEquals(1, ring.get(2).successCount());
+
+        release.countDown();
+        slow.join(5000);
+
+        assertEquals(1, ring.get(2).successCount());
+        assertEquals(1, ring.get(2).failureCount());
+    }
+
+}
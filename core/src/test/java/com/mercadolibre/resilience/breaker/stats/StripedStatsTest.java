@@ -0,0 +1,67 @@
+package com.mercadolibre.resilience.breaker.stats;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+
+public class StripedStatsTest {
+
+    @Test
+    public void shouldSumAcrossThreads() throws InterruptedException {
+        final Stats stats = StripedStats.FACTORY.create();
+        final int threads = 8;
+        final int calls = 10000;
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < calls; i++) {
+                        if (i % 4 == 0)
+                            stats.addFailure();
+                        else
+                            stats.addSuccess();
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        done.await();
+
+        assertEquals(threads * calls, stats.count());
+        assertEquals(threads * calls / 4, stats.failureCount());
+        assertEquals(0.25, stats.failureRate(), 0.0001);
+    }
+
+    @Test
+    public void shouldReset() {
+        Stats stats = new StripedStats();
+
+        stats.addSuccess();
+        stats.addFailure();
+        stats.reset();
+
+        assertEquals(0, stats.successCount());
+        assertEquals(0, stats.failureCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonPositiveStripes() {
+        StripedStats.factory(0);
+    }
+
+    @Test
+    public void shouldAddInBulk() {
+        StripedStats stats = new StripedStats();
+
+        stats.addSuccess();
+        stats.add(10, 5);
+
+        assertEquals(11, stats.successCount());
+        assertEquals(5, stats.failureCount());
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.mercadolibre.resilience.breaker.metrics;
+
+import com.mercadolibre.metrics.Metrics;
+
+/**
+ * Adapter to the java-metrics library. Controls pick it up by default when this module is on the classpath.
+ */
+public class JavaMetricsBreakerMetrics implements BreakerMetrics {
+
+    @Override
+    public void success(long count) {
+        Metrics.INSTANCE.incrementCounter("resilience.breaker.success", count);
+    }
+
+    @Override
+    public void failure(long count) {
+        Metrics.INSTANCE.incrementCounter("resilience.breaker.fail", count);
+    }
+
+    @Override
+    public void open() {
+        Metrics.INSTANCE.incrementCounter("resilience.breaker.open", 1);
+    }
+
+    @Override
+    public void close() {
+        Metrics.INSTANCE.incrementCounter("resilience.breaker.close", 1);
+    }
+
+    @Override
+    public void insufficientData() {
+        Metrics.INSTANCE.incrementCounter("resilience.breaker.insufficient_data", 1);
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.mercadolibre.resilience.breaker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mercadolibre.resilience.BreakerEvaluation")
+@Label("Breaker Evaluation")
+@Description("A breaker control scored its window")
+@Category({"Resilience", "Circuit Breaker"})
+@StackTrace(false)
+class BreakerEvaluationEvent extends jdk.jfr.Event {
+
+    @Label("Breaker")
+    String breaker;
+
+    @Label("Score")
+    @Description("Weighted success rate of the window, NaN when there was not enough data")
+    double score;
+
+    @Label("Samples")
+    @Description("Number of calls scored")
+    long samples;
+
+    @Label("Complete")
+    @Description("Whether every bucket in the window had enough calls to decide")
+    boolean complete;
+
+    @Label("Open")
+    @Description("Control verdict after the evaluation")
+    boolean open;
+
+}
@@ -0,0 +1,34 @@
+package com.mercadolibre.resilience.breaker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.mercadolibre.resilience.BreakerRejection")
+@Label("Breaker Rejections")
+@Description("Calls a circuit breaker rejected since the previous event")
+@Category({"Resilience", "Circuit Breaker"})
+@StackTrace(false)
+@Period("1 s")
+class BreakerRejectionEvent extends jdk.jfr.Event {
+
+    @Label("Breaker")
+    String breaker;
+
+    @Label("Open Rejections")
+    @Description("Calls rejected because the breaker was open or its half open trial calls were all taken")
+    long openRejections;
+
+    @Label("Bulkhead Rejections")
+    @Description("Calls rejected because the bulkhead was full")
+    long bulkheadRejections;
+
+    @Label("Period")
+    @Timespan(Timespan.MILLISECONDS)
+    long period;
+
+}
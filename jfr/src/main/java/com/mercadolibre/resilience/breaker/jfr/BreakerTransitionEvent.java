@@ -0,0 +1,29 @@
+package com.mercadolibre.resilience.breaker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.mercadolibre.resilience.BreakerTransition")
+@Label("Breaker Transition")
+@Description("A circuit breaker moved from one state to another")
+@Category({"Resilience", "Circuit Breaker"})
+@StackTrace(false)
+class BreakerTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Breaker")
+    String breaker;
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+
+    @Label("Score")
+    @Description("Score of the control when the state changed, NaN if it does not score calls")
+    double score;
+
+}
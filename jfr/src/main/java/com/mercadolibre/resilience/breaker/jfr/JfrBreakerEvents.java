@@ -0,0 +1,149 @@
+package com.mercadolibre.resilience.breaker.jfr;
+
+import com.mercadolibre.resilience.breaker.State;
+import com.mercadolibre.resilience.breaker.metrics.BreakerEvents;
+import com.mercadolibre.resilience.exception.BulkheadFullException;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Emits JDK Flight Recorder events for one breaker: one per state transition, one per collector evaluation and one
+ * per {@code rejectionPeriod} milliseconds with the number of calls rejected meanwhile. Rejections are only counted
+ * while the rejection event is enabled in a running recording, so nothing is done when recording is off.
+ * <p>
+ * Rejection counts are flushed by a periodic event, so the last batch is emitted even when no rejection follows it.
+ * The recording's {@code period} setting for the rejection event, one second by default, bounds how often that runs.
+ * <p>
+ * Pass the same instance to {@link com.mercadolibre.resilience.breaker.CircuitBreaker.Builder#withEvents} and, for a
+ * control built separately, to
+ * {@link com.mercadolibre.resilience.breaker.control.OnOffCircuitControl.Builder#withEvents}.
+ */
+public class JfrBreakerEvents implements BreakerEvents {
+
+    public static final long DEFAULT_REJECTION_PERIOD = 1000;
+
+    private static final EventType REJECTION_TYPE = EventType.getEventType(BreakerRejectionEvent.class);
+
+    // Instances aggregating rejections, held weakly so dropped breakers do not leak through the periodic hook
+    private static final Set<JfrBreakerEvents> AGGREGATING = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        FlightRecorder.addPeriodicEvent(BreakerRejectionEvent.class, JfrBreakerEvents::flushAll);
+    }
+
+    private final String name;
+    private final long rejectionPeriod;
+
+    private final LongAdder openRejections = new LongAdder();
+    private final LongAdder bulkheadRejections = new LongAdder();
+    private final AtomicLong lastRejectionEvent = new AtomicLong(System.nanoTime());
+
+    public JfrBreakerEvents(String name) {
+        this(name, DEFAULT_REJECTION_PERIOD);
+    }
+
+    /**
+     * A {@code rejectionPeriod} of 0 emits an event for every rejected call.
+     */
+    public JfrBreakerEvents(String name, long rejectionPeriod) {
+        if (name == null) throw new IllegalArgumentException("Name should not be null");
+        if (rejectionPeriod < 0) throw new IllegalArgumentException("Rejection period should be non negative");
+
+        this.name = name;
+        this.rejectionPeriod = TimeUnit.MILLISECONDS.toNanos(rejectionPeriod);
+
+        if (rejectionPeriod > 0) AGGREGATING.add(this);
+    }
+
+    @Override
+    public void transition(State from, State to, double score) {
+        BreakerTransitionEvent event = new BreakerTransitionEvent();
+        if (!event.shouldCommit()) return;
+
+        event.breaker = name;
+        event.from = from.name();
+        event.to = to.name();
+        event.score = score;
+        event.commit();
+    }
+
+    @Override
+    public void evaluation(double score, long samples, boolean complete, boolean open) {
+        BreakerEvaluationEvent event = new BreakerEvaluationEvent();
+        if (!event.shouldCommit()) return;
+
+        event.breaker = name;
+        event.score = score;
+        event.samples = samples;
+        event.complete = complete;
+        event.open = open;
+        event.commit();
+    }
+
+    /**
+     * Only counts the rejection unless {@code rejectionPeriod} is 0, and allocates nothing while the rejection event
+     * is disabled.
+     */
+    @Override
+    public void rejection(RejectedExecutionException rejection) {
+        if (!REJECTION_TYPE.isEnabled()) return;
+
+        boolean bulkhead = rejection instanceof BulkheadFullException;
+
+        if (rejectionPeriod == 0) {
+            commit(bulkhead ? 0 : 1, bulkhead ? 1 : 0, 0);
+            return;
+        }
+
+        if (bulkhead)
+            bulkheadRejections.increment();
+        else
+            openRejections.increment();
+    }
+
+    private static void flushAll() {
+        long now = System.nanoTime();
+
+        synchronized (AGGREGATING) {
+            for (JfrBreakerEvents events : AGGREGATING)
+                events.flush(now);
+        }
+    }
+
+    /**
+     * Emits the rejections counted since the previous flush once {@code rejectionPeriod} has elapsed.
+     */
+    private void flush(long now) {
+        long last = lastRejectionEvent.get();
+
+        if (now - last < rejectionPeriod || !lastRejectionEvent.compareAndSet(last, now)) return;
+
+        long open = openRejections.sumThenReset();
+        long bulkhead = bulkheadRejections.sumThenReset();
+
+        if (open > 0 || bulkhead > 0) commit(open, bulkhead, TimeUnit.NANOSECONDS.toMillis(now - last));
+    }
+
+    private void commit(long open, long bulkhead, long period) {
+        BreakerRejectionEvent event = new BreakerRejectionEvent();
+
+        event.breaker = name;
+        event.openRejections = open;
+        event.bulkheadRejections = bulkhead;
+        event.period = period;
+        event.commit();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.mercadolibre.resilience.breaker.jfr;
+
+import com.mercadolibre.resilience.breaker.State;
+import com.mercadolibre.resilience.exception.BreakerOpenException;
+import com.mercadolibre.resilience.exception.BulkheadFullException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JfrBreakerEventsTest {
+
+    private static final BreakerOpenException OPEN = BreakerOpenException.stackless("Breaker is open");
+    private static final BulkheadFullException FULL = BulkheadFullException.stackless("Breaker bulkhead is full");
+
+    private List<RecordedEvent> record(Runnable body) throws Exception {
+        Path file = Files.createTempFile("breaker", ".jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(BreakerTransitionEvent.class);
+            recording.enable(BreakerEvaluationEvent.class);
+            recording.enable(BreakerRejectionEvent.class);
+            recording.start();
+
+            body.run();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        try {
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().startsWith("com.mercadolibre.resilience."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void shouldRecordTransitionsAndEvaluations() throws Exception {
+        JfrBreakerEvents events = new JfrBreakerEvents("payments");
+
+        List<RecordedEvent> recorded = record(() -> {
+            events.evaluation(0.2, 300, true, true);
+            events.transition(State.CLOSED, State.OPEN, 0.2);
+        });
+
+        assertEquals(2, recorded.size());
+
+        RecordedEvent evaluation = recorded.get(0);
+        assertEquals("com.mercadolibre.resilience.BreakerEvaluation", evaluation.getEventType().getName());
+        assertEquals("payments", evaluation.getString("breaker"));
+        assertEquals(0.2, evaluation.getDouble("score"), 1e-9);
+        assertEquals(300, evaluation.getLong("samples"));
+        assertTrue(evaluation.getBoolean("complete"));
+        assertTrue(evaluation.getBoolean("open"));
+
+        RecordedEvent transition = recorded.get(1);
+        assertEquals("com.mercadolibre.resilience.BreakerTransition", transition.getEventType().getName());
+        assertEquals("CLOSED", transition.getString("from"));
+        assertEquals("OPEN", transition.getString("to"));
+    }
+
+    @Test
+    public void shouldRecordEveryRejectionWithoutPeriod() throws Exception {
+        JfrBreakerEvents events = new JfrBreakerEvents("payments", 0);
+
+        List<RecordedEvent> recorded = record(() -> {
+            events.rejection(OPEN);
+            events.rejection(FULL);
+        });
+
+        assertEquals(2, recorded.size());
+        assertEquals(1, recorded.get(0).getLong("openRejections"));
+        assertEquals(0, recorded.get(0).getLong("bulkheadRejections"));
+        assertEquals(0, recorded.get(1).getLong("openRejections"));
+        assertEquals(1, recorded.get(1).getLong("bulkheadRejections"));
+    }
+
+    @Test
+    public void shouldAggregateRejectionsWithinPeriod() throws Exception {
+        JfrBreakerEvents events = new JfrBreakerEvents("payments", 60 * 1000);
+
+        List<RecordedEvent> recorded = record(() -> {
+            for (int i = 0; i < 100; i++)
+                events.rejection(OPEN);
+        });
+
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    public void shouldFlushLastRejectionsPeriodically() throws Exception {
+        JfrBreakerEvents events = new JfrBreakerEvents("payments", 100);
+
+        List<RecordedEvent> recorded = record(() -> {
+            for (int i = 0; i < 5; i++)
+                events.rejection(OPEN);
+            events.rejection(FULL);
+
+            try {
+                Thread.sleep(2500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertEquals(1, recorded.size());
+        assertEquals("payments", recorded.get(0).getString("breaker"));
+        assertEquals(5, recorded.get(0).getLong("openRejections"));
+        assertEquals(1, recorded.get(0).getLong("bulkheadRejections"));
+    }
+
+    @Test
+    public void shouldNotCountRejectionsWhileDisabled() throws Exception {
+        JfrBreakerEvents events = new JfrBreakerEvents("payments", 0);
+
+        for (int i = 0; i < 100; i++)
+            events.rejection(OPEN);
+
+        List<RecordedEvent> recorded = record(() -> events.rejection(OPEN));
+
+        assertEquals(1, recorded.size());
+        assertEquals(1, recorded.get(0).getLong("openRejections"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNullName() {
+        new JfrBreakerEvents(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNegativeRejectionPeriod() {
+        new JfrBreakerEvents("payments", -1);
+    }
+
+}